@@ -52,15 +52,30 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static com.alibaba.spring.util.AnnotationUtils.getAnnotationAttributes;
+import static com.alibaba.spring.util.AnnotationUtils.getCachedAnnotationAttributes;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
 import static org.springframework.aop.support.AopUtils.getTargetClass;
 import static org.springframework.core.BridgeMethodResolver.findBridgedMethod;
 import static org.springframework.core.BridgeMethodResolver.isVisibilityBridgeMethodPair;
@@ -79,15 +94,82 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
 
     private final static int CACHE_SIZE = Integer.getInteger("", 32);
 
+    private static final String JAVA_LANG_ANNOTATION_PACKAGE_PREFIX = "java.lang.annotation.";
+
     private final Log logger = LogFactory.getLog(getClass());
 
     private final Class<? extends Annotation>[] annotationTypes;
 
+    /**
+     * The {@link Set} of {@link #annotationTypes} for lookup
+     *
+     * @since 1.0.12
+     */
+    private final Set<Class<? extends Annotation>> annotationTypeSet;
+
+    /**
+     * The cache of the types of {@link #annotationTypes annotations} matched by any annotation type
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<Class<? extends Annotation>, Set<Class<? extends Annotation>>> matchedAnnotationTypesCache =
+            new ConcurrentHashMap<Class<? extends Annotation>, Set<Class<? extends Annotation>>>(CACHE_SIZE);
+
     private final ConcurrentMap<String, AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata> injectionMetadataCache =
             new ConcurrentHashMap<String, AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>(CACHE_SIZE);
 
+    /**
+     * The shared {@link AnnotatedInjectionMetadata} per bean class, whose annotated elements are reused by all beans
+     * of the same class
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<Class<?>, AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata> classInjectionMetadataCache =
+            new ConcurrentHashMap<Class<?>, AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>(CACHE_SIZE);
+
+    /**
+     * The tasks that are building {@link AnnotatedInjectionMetadata} for bean classes
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<Class<?>, FutureTask<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>> classInjectionMetadataBuildingTasks =
+            new ConcurrentHashMap<Class<?>, FutureTask<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>>(CACHE_SIZE);
+
+    /**
+     * The bean classes that have no injection point
+     *
+     * @since 1.0.12
+     */
+    private final Set<Class<?>> nonInjectedClasses = newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>(CACHE_SIZE));
+
+    /**
+     * The shared empty {@link AnnotatedInjectionMetadata} for the bean classes that have no injection point
+     *
+     * @since 1.0.12
+     */
+    private final AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata emptyInjectionMetadata =
+            new AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata(Object.class,
+                    Collections.<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement>emptyList(),
+                    Collections.<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement>emptyList());
+
     private final ConcurrentMap<String, Object> injectedObjectsCache = new ConcurrentHashMap<String, Object>(CACHE_SIZE);
 
+    /**
+     * The tasks that are creating the injected-objects
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<String, InjectedObjectCreatingTask> injectedObjectCreatingTasks =
+            new ConcurrentHashMap<String, InjectedObjectCreatingTask>(CACHE_SIZE);
+
+    /**
+     * The creating tasks that the threads are waiting for, it's used to detect the circular waiting across threads
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<Thread, InjectedObjectCreatingTask> waitingCreatingTasks =
+            new ConcurrentHashMap<Thread, InjectedObjectCreatingTask>(CACHE_SIZE);
+
     private ConfigurableListableBeanFactory beanFactory;
 
     private Environment environment;
@@ -132,12 +214,69 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
      */
     private boolean tryMergedAnnotation = true;
 
+    /**
+     * whether cache the annotation attributes or not
+     *
+     * @since 1.0.12
+     */
+    private boolean cacheAnnotationAttributes;
+
+    /**
+     * Whether {@link #doGetAnnotationAttributes(AnnotatedElement, Class)} is overridden, if so, all members are
+     * passed to it because the attributes may not come from the declared annotations
+     *
+     * @since 1.0.12
+     */
+    private final boolean annotationAttributesCustomized;
+
     /**
      * @param annotationTypes the multiple types of {@link Annotation annotations}
      */
     public AbstractAnnotationBeanPostProcessor(Class<? extends Annotation>... annotationTypes) {
         Assert.notEmpty(annotationTypes, "The argument of annotations' types must not empty");
         this.annotationTypes = annotationTypes;
+        this.annotationTypeSet = new HashSet<Class<? extends Annotation>>(asList(annotationTypes));
+        this.annotationAttributesCustomized = isAnnotationAttributesCustomized(getClass());
+    }
+
+    private static boolean isAnnotationAttributesCustomized(Class<?> processorClass) {
+        Method method = ReflectionUtils.findMethod(processorClass, "doGetAnnotationAttributes",
+                AnnotatedElement.class, Class.class);
+        return method != null && !AbstractAnnotationBeanPostProcessor.class.equals(method.getDeclaringClass());
+    }
+
+    /**
+     * Get the result of {@link Future} uninterruptibly, the {@link RuntimeException} or {@link Error} thrown by the
+     * computation will be rethrown as it is.
+     *
+     * @param future {@link Future}
+     * @param <T>    the type of result
+     * @return the result
+     * @since 1.0.12
+     */
+    static <T> T getResult(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private static <T> Collection<T> combine(Collection<? extends T>... elements) {
@@ -174,6 +313,10 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
     public PropertyValues postProcessPropertyValues(
             PropertyValues pvs, PropertyDescriptor[] pds, Object bean, String beanName) throws BeanCreationException {
 
+        if (isNonInjectedClass(bean.getClass())) { // Fast path for the bean without any injection point
+            return pvs;
+        }
+
         InjectionMetadata metadata = findInjectionMetadata(beanName, bean.getClass(), pvs);
         try {
             metadata.inject(bean, beanName, pvs);
@@ -201,7 +344,7 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
             @Override
             public void doWith(Field field) throws IllegalArgumentException, IllegalAccessException {
 
-                for (Class<? extends Annotation> annotationType : getAnnotationTypes()) {
+                for (Class<? extends Annotation> annotationType : findCandidateAnnotationTypes(field)) {
 
                     AnnotationAttributes attributes = doGetAnnotationAttributes(field, annotationType);
 
@@ -245,7 +388,7 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
                 }
 
 
-                for (Class<? extends Annotation> annotationType : getAnnotationTypes()) {
+                for (Class<? extends Annotation> annotationType : findCandidateAnnotationTypes(bridgedMethod)) {
 
                     AnnotationAttributes attributes = doGetAnnotationAttributes(bridgedMethod, annotationType);
 
@@ -272,6 +415,93 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
         return elements;
     }
 
+    /**
+     * Find the candidate types of {@link Annotation annotations} that may be present on the specified member by
+     * reading its declared annotations only once, the types are either declared directly or used as meta-annotations.
+     * All types are the candidates if {@link #doGetAnnotationAttributes(AnnotatedElement, Class)} is overridden.
+     *
+     * @param member the field or method
+     * @return non-null {@link List} whose order is same as {@link #getAnnotationTypes()}
+     * @since 1.0.12
+     */
+    private List<Class<? extends Annotation>> findCandidateAnnotationTypes(AnnotatedElement member) {
+
+        if (annotationAttributesCustomized) {
+            return asList(getAnnotationTypes());
+        }
+
+        Annotation[] annotations = member.getDeclaredAnnotations();
+
+        Set<Class<? extends Annotation>> matchedAnnotationTypes = null;
+
+        for (Annotation annotation : annotations) {
+            Set<Class<? extends Annotation>> annotationTypes = getMatchedAnnotationTypes(annotation.annotationType());
+            if (!annotationTypes.isEmpty()) {
+                if (matchedAnnotationTypes == null) {
+                    matchedAnnotationTypes = new HashSet<Class<? extends Annotation>>(annotationTypes);
+                } else {
+                    matchedAnnotationTypes.addAll(annotationTypes);
+                }
+            }
+        }
+
+        if (matchedAnnotationTypes == null) { // Most members have no candidate
+            return emptyList();
+        }
+
+        List<Class<? extends Annotation>> candidateAnnotationTypes =
+                new ArrayList<Class<? extends Annotation>>(matchedAnnotationTypes.size());
+
+        for (Class<? extends Annotation> annotationType : getAnnotationTypes()) {
+            if (matchedAnnotationTypes.contains(annotationType)) {
+                candidateAnnotationTypes.add(annotationType);
+            }
+        }
+
+        return candidateAnnotationTypes;
+    }
+
+    /**
+     * Get the types of {@link #getAnnotationTypes() annotations} that are matched by the specified annotation type,
+     * directly or as meta-annotations.
+     *
+     * @param annotationType the {@link Class type} of {@link Annotation annotation}
+     * @return non-null read-only {@link Set}
+     * @since 1.0.12
+     */
+    private Set<Class<? extends Annotation>> getMatchedAnnotationTypes(Class<? extends Annotation> annotationType) {
+        Set<Class<? extends Annotation>> matchedAnnotationTypes = matchedAnnotationTypesCache.get(annotationType);
+        if (matchedAnnotationTypes == null) {
+            matchedAnnotationTypes = resolveMatchedAnnotationTypes(annotationType, new HashSet<Class<?>>());
+            matchedAnnotationTypesCache.putIfAbsent(annotationType, matchedAnnotationTypes);
+        }
+        return matchedAnnotationTypes;
+    }
+
+    private Set<Class<? extends Annotation>> resolveMatchedAnnotationTypes(Class<? extends Annotation> annotationType,
+                                                                         Set<Class<?>> visitedAnnotationTypes) {
+
+        if (!visitedAnnotationTypes.add(annotationType)) {
+            return emptySet();
+        }
+
+        Set<Class<? extends Annotation>> matchedAnnotationTypes = new LinkedHashSet<Class<? extends Annotation>>();
+
+        if (annotationTypeSet.contains(annotationType)) {
+            matchedAnnotationTypes.add(annotationType);
+        }
+
+        if (!annotationType.getName().startsWith(JAVA_LANG_ANNOTATION_PACKAGE_PREFIX)) {
+            for (Annotation metaAnnotation : annotationType.getDeclaredAnnotations()) {
+                matchedAnnotationTypes.addAll(resolveMatchedAnnotationTypes(metaAnnotation.annotationType(),
+                        visitedAnnotationTypes));
+            }
+        }
+
+        return matchedAnnotationTypes.isEmpty() ? Collections.<Class<? extends Annotation>>emptySet() :
+                unmodifiableSet(matchedAnnotationTypes);
+    }
+
     /**
      * Get {@link AnnotationAttributes}
      *
@@ -282,6 +512,10 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
      */
     protected AnnotationAttributes doGetAnnotationAttributes(AnnotatedElement annotatedElement,
                                                              Class<? extends Annotation> annotationType) {
+        if (cacheAnnotationAttributes) {
+            return getCachedAnnotationAttributes(annotatedElement, annotationType, getEnvironment(),
+                    classValuesAsString, nestedAnnotationsAsMap, ignoreDefaultValue, tryMergedAnnotation);
+        }
         return getAnnotationAttributes(annotatedElement, annotationType, getEnvironment(),
                 classValuesAsString, nestedAnnotationsAsMap, ignoreDefaultValue, tryMergedAnnotation);
     }
@@ -289,29 +523,103 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
     private AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata buildAnnotatedMetadata(final Class<?> beanClass) {
         Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> fieldElements = findFieldAnnotationMetadata(beanClass);
         Collection<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> methodElements = findAnnotatedMethodMetadata(beanClass);
-        return new AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata(beanClass, fieldElements, methodElements);
+        if (fieldElements.isEmpty() && methodElements.isEmpty()) {
+            return emptyInjectionMetadata;
+        }
+        return new AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata(beanClass,
+                unmodifiableCollection(fieldElements), unmodifiableCollection(methodElements));
+    }
+
+    /**
+     * Find the shared {@link AnnotatedInjectionMetadata} of the specified bean class, the annotated elements will be
+     * introspected only once per class. The different classes are introspected concurrently, while the concurrent
+     * requests for the same class wait for the only one building.
+     *
+     * @param beanClass The {@link Class} of Bean
+     * @return non-null
+     * @since 1.0.12
+     */
+    private AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata findClassInjectionMetadata(final Class<?> beanClass) {
+        AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata metadata = getCachedClassInjectionMetadata(beanClass);
+        while (metadata == null) {
+            FutureTask<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata> task =
+                    new FutureTask<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>(
+                            new Callable<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata>() {
+                                @Override
+                                public AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata call() {
+                                    return buildAnnotatedMetadata(beanClass);
+                                }
+                            });
+            FutureTask<AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata> buildingTask =
+                    this.classInjectionMetadataBuildingTasks.putIfAbsent(beanClass, task);
+            if (buildingTask == null) { // The current thread is in charge of building
+                try {
+                    // Double check, the previous building may be completed after the first lookup
+                    metadata = getCachedClassInjectionMetadata(beanClass);
+                    if (metadata == null) {
+                        task.run();
+                        metadata = getResult(task);
+                        if (metadata == emptyInjectionMetadata) { // No injection point was found
+                            this.nonInjectedClasses.add(beanClass);
+                        } else {
+                            this.classInjectionMetadataCache.put(beanClass, metadata);
+                        }
+                    }
+                } finally {
+                    this.classInjectionMetadataBuildingTasks.remove(beanClass, task);
+                }
+            } else { // Wait for the building in another thread
+                metadata = getResult(buildingTask);
+            }
+        }
+        return metadata;
+    }
+
+    private AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata getCachedClassInjectionMetadata(Class<?> beanClass) {
+        return isNonInjectedClass(beanClass) ? emptyInjectionMetadata :
+                this.classInjectionMetadataCache.get(beanClass);
+    }
+
+    /**
+     * Is the specified bean class known to have no injection point
+     *
+     * @param beanClass The {@link Class} of Bean
+     * @return <code>true</code> if the class has been introspected and no annotated member was found
+     * @since 1.0.12
+     */
+    private boolean isNonInjectedClass(Class<?> beanClass) {
+        return this.nonInjectedClasses.contains(beanClass);
     }
 
     private InjectionMetadata findInjectionMetadata(String beanName, Class<?> clazz, PropertyValues pvs) {
         // Fall back to class name as cache key, for backwards compatibility with custom callers.
         String cacheKey = (StringUtils.hasLength(beanName) ? beanName : clazz.getName());
-        // Quick check on the concurrent map first, with minimal locking.
+        // Quick check on the concurrent map first, without locking.
         AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata metadata = this.injectionMetadataCache.get(cacheKey);
-        if (InjectionMetadata.needsRefresh(metadata, clazz)) {
-            synchronized (this.injectionMetadataCache) {
+        while (InjectionMetadata.needsRefresh(metadata, clazz)) {
+            AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata classMetadata;
+            try {
+                classMetadata = findClassInjectionMetadata(clazz);
+            } catch (NoClassDefFoundError err) {
+                throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() +
+                        "] for annotation metadata: could not find class that it depends on", err);
+            }
+            if (classMetadata == emptyInjectionMetadata) { // No per-bean metadata is needed
+                return emptyInjectionMetadata;
+            }
+            // The per-bean metadata shares the annotated elements of its class, while keeping its own
+            // checked elements for the bean definition
+            AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata newMetadata =
+                    new AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata(classMetadata);
+            if (metadata == null) {
+                AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata existingMetadata =
+                        this.injectionMetadataCache.putIfAbsent(cacheKey, newMetadata);
+                metadata = existingMetadata == null ? newMetadata : existingMetadata;
+            } else if (this.injectionMetadataCache.replace(cacheKey, metadata, newMetadata)) {
+                metadata.clear(pvs);
+                metadata = newMetadata;
+            } else { // Replaced by another thread
                 metadata = this.injectionMetadataCache.get(cacheKey);
-                if (InjectionMetadata.needsRefresh(metadata, clazz)) {
-                    if (metadata != null) {
-                        metadata.clear(pvs);
-                    }
-                    try {
-                        metadata = buildAnnotatedMetadata(clazz);
-                        this.injectionMetadataCache.put(cacheKey, metadata);
-                    } catch (NoClassDefFoundError err) {
-                        throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() +
-                                "] for annotation metadata: could not find class that it depends on", err);
-                    }
-                }
             }
         }
         return metadata;
@@ -319,7 +627,7 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
 
     @Override
     public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
-        if (beanType != null) {
+        if (beanType != null && !isNonInjectedClass(beanType)) {
             InjectionMetadata metadata = findInjectionMetadata(beanName, beanType, null);
             metadata.checkConfigMembers(beanDefinition);
         }
@@ -338,16 +646,12 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
     public void destroy() throws Exception {
 
         for (Object object : injectedObjectsCache.values()) {
-            if (logger.isInfoEnabled()) {
-                logger.info(object + " was destroying!");
-            }
-
-            if (object instanceof DisposableBean) {
-                ((DisposableBean) object).destroy();
-            }
+            destroyInjectedObject(object);
         }
 
         injectionMetadataCache.clear();
+        classInjectionMetadataCache.clear();
+        nonInjectedClasses.clear();
         injectedObjectsCache.clear();
 
         if (logger.isInfoEnabled()) {
@@ -398,23 +702,108 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
      * @return An injected object
      * @throws Exception If getting is failed
      */
-    protected Object getInjectedObject(AnnotationAttributes attributes, Object bean, String beanName, Class<?> injectedType,
-                                       InjectionMetadata.InjectedElement injectedElement) throws Exception {
+    protected Object getInjectedObject(final AnnotationAttributes attributes, final Object bean, final String beanName,
+                                       final Class<?> injectedType,
+                                       final InjectionMetadata.InjectedElement injectedElement) throws Exception {
 
         String cacheKey = buildInjectedObjectCacheKey(attributes, bean, beanName, injectedType, injectedElement);
 
         Object injectedObject = injectedObjectsCache.get(cacheKey);
 
         if (injectedObject == null) {
-            injectedObject = doGetInjectedBean(attributes, bean, beanName, injectedType, injectedElement);
-            // Customized inject-object if necessary
-            injectedObjectsCache.putIfAbsent(cacheKey, injectedObject);
+            InjectedObjectCreatingTask task = new InjectedObjectCreatingTask();
+            InjectedObjectCreatingTask creatingTask = injectedObjectCreatingTasks.putIfAbsent(cacheKey, task);
+            if (creatingTask == null) { // The current thread is in charge of creating
+                try {
+                    // Double check, the previous creating may be completed after the first lookup
+                    injectedObject = injectedObjectsCache.get(cacheKey);
+                    if (injectedObject == null) {
+                        injectedObject = createInjectedObject(cacheKey, attributes, bean, beanName, injectedType, injectedElement);
+                    }
+                    task.complete(injectedObject);
+                } catch (Exception e) {
+                    task.fail(e);
+                    throw e;
+                } catch (Error e) {
+                    task.fail(e);
+                    throw e;
+                } finally {
+                    injectedObjectCreatingTasks.remove(cacheKey, task);
+                }
+            } else { // Wait for the creating in another thread
+                injectedObject = awaitInjectedObject(creatingTask);
+                if (injectedObject == null) { // Circular injection, waiting would be a deadlock
+                    injectedObject = createInjectedObject(cacheKey, attributes, bean, beanName, injectedType, injectedElement);
+                }
+            }
         }
 
         return injectedObject;
 
     }
 
+    /**
+     * Wait for the injected-object created by the specified task, unless the owner of task is the current thread, or
+     * is waiting for the current thread through the other creating tasks.
+     *
+     * @param creatingTask {@link InjectedObjectCreatingTask}
+     * @return the created injected-object, or <code>null</code> if the waiting would be a deadlock
+     * @throws Exception the exception thrown by the creating
+     * @since 1.0.12
+     */
+    private Object awaitInjectedObject(InjectedObjectCreatingTask creatingTask) throws Exception {
+        Thread currentThread = Thread.currentThread();
+        // Register the waiting before the detection, one of the threads in a circle must see the others
+        waitingCreatingTasks.put(currentThread, creatingTask);
+        try {
+            return isWaitingFor(creatingTask, currentThread) ? null : creatingTask.await();
+        } finally {
+            waitingCreatingTasks.remove(currentThread, creatingTask);
+        }
+    }
+
+    private boolean isWaitingFor(InjectedObjectCreatingTask creatingTask, Thread thread) {
+        InjectedObjectCreatingTask task = creatingTask;
+        // The steps are bounded by the waiting threads, a circle without the specified thread doesn't loop forever
+        for (int steps = waitingCreatingTasks.size(); task != null && steps >= 0; steps--) {
+            if (task.owner == thread) {
+                return true;
+            }
+            task = waitingCreatingTasks.get(task.owner);
+        }
+        return false;
+    }
+
+    private Object createInjectedObject(String cacheKey, AnnotationAttributes attributes, Object bean, String beanName,
+                                        Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement)
+            throws Exception {
+        Object injectedObject = doGetInjectedBean(attributes, bean, beanName, injectedType, injectedElement);
+        // Customized inject-object if necessary
+        Object existingInjectedObject = injectedObjectsCache.putIfAbsent(cacheKey, injectedObject);
+        if (existingInjectedObject != null && existingInjectedObject != injectedObject) {
+            // The candidate that lost the race must not be leaked
+            try {
+                destroyInjectedObject(injectedObject);
+            } catch (Exception e) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The duplicated injected-object [" + injectedObject + "] can't be destroyed", e);
+                }
+            }
+            injectedObject = existingInjectedObject;
+        }
+        return injectedObject;
+    }
+
+    private void destroyInjectedObject(Object injectedObject) throws Exception {
+        if (logger.isInfoEnabled()) {
+            logger.info(injectedObject + " was destroying!");
+        }
+
+        if (injectedObject instanceof DisposableBean) {
+            ((DisposableBean) injectedObject).destroy();
+        }
+    }
+
     /**
      * Subclass must implement this method to get injected-object. The context objects could help this method if
      * necessary :
@@ -544,11 +933,23 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
         this.tryMergedAnnotation = tryMergedAnnotation;
     }
 
+    /**
+     * @param cacheAnnotationAttributes whether cache the annotation attributes or not, the placeholders will be
+     *                                  resolved on each lookup
+     * @see com.alibaba.spring.util.AnnotationUtils#getCachedAnnotationAttributes
+     * @since 1.0.12
+     */
+    public void setCacheAnnotationAttributes(boolean cacheAnnotationAttributes) {
+        this.cacheAnnotationAttributes = cacheAnnotationAttributes;
+    }
+
     /**
      * {@link Annotation Annotated} {@link InjectionMetadata} implementation
      */
     private class AnnotatedInjectionMetadata extends InjectionMetadata {
 
+        private final Class<?> targetClass;
+
         private final Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> fieldElements;
 
         private final Collection<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> methodElements;
@@ -556,10 +957,20 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
         public AnnotatedInjectionMetadata(Class<?> targetClass, Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> fieldElements,
                                           Collection<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> methodElements) {
             super(targetClass, combine(fieldElements, methodElements));
+            this.targetClass = targetClass;
             this.fieldElements = fieldElements;
             this.methodElements = methodElements;
         }
 
+        /**
+         * @param metadata the shared {@link AnnotatedInjectionMetadata} whose introspected members will be reused, the
+         *                 annotated elements are copied per bean to keep their own injected objects
+         * @since 1.0.12
+         */
+        public AnnotatedInjectionMetadata(AbstractAnnotationBeanPostProcessor.AnnotatedInjectionMetadata metadata) {
+            this(metadata.targetClass, copyFieldElements(metadata.fieldElements), copyMethodElements(metadata.methodElements));
+        }
+
         public Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> getFieldElements() {
             return fieldElements;
         }
@@ -569,6 +980,85 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
         }
     }
 
+    private Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> copyFieldElements(
+            Collection<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> fieldElements) {
+        List<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement> copiedElements =
+                new ArrayList<AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement>(fieldElements.size());
+        for (AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement fieldElement : fieldElements) {
+            copiedElements.add(new AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement(fieldElement));
+        }
+        return unmodifiableCollection(copiedElements);
+    }
+
+    private Collection<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> copyMethodElements(
+            Collection<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> methodElements) {
+        List<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement> copiedElements =
+                new ArrayList<AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement>(methodElements.size());
+        for (AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement methodElement : methodElements) {
+            copiedElements.add(new AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement(methodElement));
+        }
+        return unmodifiableCollection(copiedElements);
+    }
+
+    /**
+     * The task is completed by its owner thread that is creating the injected-object, the other threads wait for it
+     *
+     * @since 1.0.12
+     */
+    private static class InjectedObjectCreatingTask extends FutureTask<Object> {
+
+        private static final Runnable NO_OP = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+
+        private final Thread owner = Thread.currentThread();
+
+        InjectedObjectCreatingTask() {
+            super(NO_OP, null);
+        }
+
+        void complete(Object injectedObject) {
+            set(injectedObject);
+        }
+
+        void fail(Throwable cause) {
+            setException(cause);
+        }
+
+        /**
+         * Wait for the injected-object uninterruptibly
+         *
+         * @return the created injected-object
+         * @throws Exception the original exception thrown by the owner thread
+         */
+        Object await() throws Exception {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof Exception) {
+                            throw (Exception) cause;
+                        } else if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
     /**
      * {@link Annotation Annotated} {@link Method} {@link InjectionMetadata.InjectedElement}
      */
@@ -586,6 +1076,14 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
             this.attributes = attributes;
         }
 
+        /**
+         * @param element the introspected element to copy
+         * @since 1.0.12
+         */
+        AnnotatedMethodElement(AbstractAnnotationBeanPostProcessor.AnnotatedMethodElement element) {
+            this(element.method, element.pd, element.attributes);
+        }
+
         @Override
         protected void inject(Object bean, String beanName, PropertyValues pvs) throws Throwable {
 
@@ -597,6 +1095,8 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
 
             method.invoke(bean, injectedObject);
 
+            this.object = injectedObject;
+
         }
 
     }
@@ -618,6 +1118,14 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
             this.attributes = attributes;
         }
 
+        /**
+         * @param element the introspected element to copy
+         * @since 1.0.12
+         */
+        AnnotatedFieldElement(AbstractAnnotationBeanPostProcessor.AnnotatedFieldElement element) {
+            this(element.field, element.attributes);
+        }
+
         @Override
         protected void inject(Object bean, String beanName, PropertyValues pvs) throws Throwable {
 
@@ -629,6 +1137,8 @@ public abstract class AbstractAnnotationBeanPostProcessor extends
 
             field.set(bean, injectedObject);
 
+            this.bean = injectedObject;
+
         }
 
         private Class<?> resolveInjectedType(Object bean, Field field) {
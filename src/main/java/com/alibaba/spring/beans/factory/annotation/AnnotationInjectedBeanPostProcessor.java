@@ -53,9 +53,12 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
 
+import static com.alibaba.spring.beans.factory.annotation.AbstractAnnotationBeanPostProcessor.getResult;
 import static com.alibaba.spring.util.ClassUtils.resolveGenericType;
 import static org.springframework.core.BridgeMethodResolver.findBridgedMethod;
 import static org.springframework.core.BridgeMethodResolver.isVisibilityBridgeMethodPair;
@@ -85,6 +88,9 @@ public abstract class AnnotationInjectedBeanPostProcessor<A extends Annotation>
     private final ConcurrentMap<String, AnnotatedInjectionMetadata> injectionMetadataCache =
             new ConcurrentHashMap<String, AnnotatedInjectionMetadata>(CACHE_SIZE);
 
+    private final ConcurrentMap<String, FutureTask<AnnotatedInjectionMetadata>> injectionMetadataBuildingTasks =
+            new ConcurrentHashMap<String, FutureTask<AnnotatedInjectionMetadata>>(CACHE_SIZE);
+
     private final ConcurrentMap<String, Object> injectedObjectsCache = new ConcurrentHashMap<String, Object>(CACHE_SIZE);
 
     private ConfigurableListableBeanFactory beanFactory;
@@ -227,26 +233,42 @@ public abstract class AnnotationInjectedBeanPostProcessor<A extends Annotation>
 
     }
 
-    private InjectionMetadata findInjectionMetadata(String beanName, Class<?> clazz, PropertyValues pvs) {
+    private InjectionMetadata findInjectionMetadata(String beanName, final Class<?> clazz, PropertyValues pvs) {
         // Fall back to class name as cache key, for backwards compatibility with custom callers.
         String cacheKey = (StringUtils.hasLength(beanName) ? beanName : clazz.getName());
-        // Quick check on the concurrent map first, with minimal locking.
+        // Quick check on the concurrent map first, without locking.
         AnnotatedInjectionMetadata metadata = this.injectionMetadataCache.get(cacheKey);
-        if (InjectionMetadata.needsRefresh(metadata, clazz)) {
-            synchronized (this.injectionMetadataCache) {
-                metadata = this.injectionMetadataCache.get(cacheKey);
-                if (InjectionMetadata.needsRefresh(metadata, clazz)) {
-                    if (metadata != null) {
-                        metadata.clear(pvs);
-                    }
+        while (InjectionMetadata.needsRefresh(metadata, clazz)) {
+            FutureTask<AnnotatedInjectionMetadata> task = new FutureTask<AnnotatedInjectionMetadata>(
+                    new Callable<AnnotatedInjectionMetadata>() {
+                        @Override
+                        public AnnotatedInjectionMetadata call() {
+                            return buildAnnotatedMetadata(clazz);
+                        }
+                    });
+            FutureTask<AnnotatedInjectionMetadata> buildingTask = this.injectionMetadataBuildingTasks.putIfAbsent(cacheKey, task);
+            try {
+                if (buildingTask == null) { // The current thread is in charge of building
                     try {
-                        metadata = buildAnnotatedMetadata(clazz);
-                        this.injectionMetadataCache.put(cacheKey, metadata);
-                    } catch (NoClassDefFoundError err) {
-                        throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() +
-                                "] for annotation metadata: could not find class that it depends on", err);
+                        // Double check, the previous building may be completed after the first lookup
+                        metadata = this.injectionMetadataCache.get(cacheKey);
+                        if (InjectionMetadata.needsRefresh(metadata, clazz)) {
+                            if (metadata != null) {
+                                metadata.clear(pvs);
+                            }
+                            task.run();
+                            metadata = getResult(task);
+                            this.injectionMetadataCache.put(cacheKey, metadata);
+                        }
+                    } finally {
+                        this.injectionMetadataBuildingTasks.remove(cacheKey, task);
                     }
+                } else { // Wait for the building in another thread
+                    metadata = getResult(buildingTask);
                 }
+            } catch (NoClassDefFoundError err) {
+                throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() +
+                        "] for annotation metadata: could not find class that it depends on", err);
             }
         }
         return metadata;
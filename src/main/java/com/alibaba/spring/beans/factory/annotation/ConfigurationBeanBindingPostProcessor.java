@@ -18,7 +18,9 @@ package com.alibaba.spring.beans.factory.annotation;
 
 import com.alibaba.spring.context.config.ConfigurationBeanBinder;
 import com.alibaba.spring.context.config.ConfigurationBeanCustomizer;
+import com.alibaba.spring.context.config.ConfigurationBeanRecustomizer;
 import com.alibaba.spring.context.config.DefaultConfigurationBeanBinder;
+import com.alibaba.spring.context.config.TypedConfigurationBeanCustomizer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeansException;
@@ -29,14 +31,25 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.PropertySources;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.alibaba.spring.beans.factory.annotation.ConfigurationBeanBindingRegistrar.ENABLE_CONFIGURATION_BINDING_CLASS;
+import static com.alibaba.spring.util.PropertySourcesUtils.getSubProperties;
+import static com.alibaba.spring.util.PropertySourcesUtils.normalizePrefix;
 import static com.alibaba.spring.util.WrapperUtils.unwrap;
 import static org.springframework.beans.factory.BeanFactoryUtils.beansOfTypeIncludingAncestors;
 import static org.springframework.core.annotation.AnnotationAwareOrderComparator.sort;
@@ -63,6 +76,10 @@ public class ConfigurationBeanBindingPostProcessor implements BeanPostProcessor,
 
     static final String IGNORE_INVALID_FIELDS_ATTRIBUTE_NAME = "ignoreInvalidFields";
 
+    static final String CONFIGURATION_BEAN_NAMES_ATTRIBUTE_NAME = "configurationBeanNames";
+
+    static final String PREFIX_ATTRIBUTE_NAME = "prefix";
+
     private final Log log = LogFactory.getLog(getClass());
 
     private ConfigurableListableBeanFactory beanFactory = null;
@@ -71,11 +88,31 @@ public class ConfigurationBeanBindingPostProcessor implements BeanPostProcessor,
 
     private List<ConfigurationBeanCustomizer> configurationBeanCustomizers = null;
 
+    /**
+     * The cache of the applicable {@link ConfigurationBeanCustomizer ConfigurationBeanCustomizers} per the class of
+     * configuration bean
+     *
+     * @since 1.0.12
+     */
+    private volatile ConcurrentMap<Class<?>, List<ConfigurationBeanCustomizer>> configurationBeanCustomizersCache =
+            new ConcurrentHashMap<Class<?>, List<ConfigurationBeanCustomizer>>();
+
     private int order = LOWEST_PRECEDENCE;
 
+    /**
+     * The names of configuration beans
+     *
+     * @since 1.0.12
+     */
+    private volatile Set<String> configurationBeanNames = null;
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
 
+        if (!getConfigurationBeanNames().contains(beanName)) {
+            return bean;
+        }
+
         BeanDefinition beanDefinition = getNullableBeanDefinition(beanName);
 
         if (isConfigurationBean(bean, beanDefinition)) {
@@ -129,6 +166,35 @@ public class ConfigurationBeanBindingPostProcessor implements BeanPostProcessor,
                 new ArrayList<ConfigurationBeanCustomizer>(configurationBeanCustomizers);
         sort(customizers);
         this.configurationBeanCustomizers = Collections.unmodifiableList(customizers);
+        this.configurationBeanCustomizersCache = new ConcurrentHashMap<Class<?>, List<ConfigurationBeanCustomizer>>();
+    }
+
+    /**
+     * Get the names of configuration beans, which were added by {@link ConfigurationBeanBindingRegistrar} into the
+     * {@link BeanDefinition} of {@link #BEAN_NAME}, or will be found from all bean definitions if absent.
+     *
+     * @return non-null
+     */
+    private Set<String> getConfigurationBeanNames() {
+        Set<String> configurationBeanNames = this.configurationBeanNames;
+        if (configurationBeanNames == null) {
+            BeanDefinition beanDefinition = getNullableBeanDefinition(BEAN_NAME);
+            Set<String> beanNames = beanDefinition == null ? null :
+                    ConfigurationBeanBindingPostProcessor.<Set<String>>getAttribute(beanDefinition, CONFIGURATION_BEAN_NAMES_ATTRIBUTE_NAME);
+            configurationBeanNames = beanNames == null ? findConfigurationBeanNames() : new HashSet<String>(beanNames);
+            this.configurationBeanNames = configurationBeanNames;
+        }
+        return configurationBeanNames;
+    }
+
+    private Set<String> findConfigurationBeanNames() {
+        Set<String> beanNames = new LinkedHashSet<String>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            if (ENABLE_CONFIGURATION_BINDING_CLASS.equals(beanFactory.getBeanDefinition(beanName).getSource())) {
+                beanNames.add(beanName);
+            }
+        }
+        return beanNames;
     }
 
     private BeanDefinition getNullableBeanDefinition(String beanName) {
@@ -181,12 +247,139 @@ public class ConfigurationBeanBindingPostProcessor implements BeanPostProcessor,
         setConfigurationBeanCustomizers(customizers);
     }
 
+    /**
+     * Get the {@link ConfigurationBeanCustomizer ConfigurationBeanCustomizers} applicable to the class of configuration
+     * bean, the {@link TypedConfigurationBeanCustomizer TypedConfigurationBeanCustomizers} for the other types are
+     * excluded.
+     *
+     * @param configurationBeanClass the class of configuration bean
+     * @return non-null
+     */
+    private List<ConfigurationBeanCustomizer> getConfigurationBeanCustomizers(Class<?> configurationBeanClass) {
+        List<ConfigurationBeanCustomizer> customizers = getConfigurationBeanCustomizers();
+        ConcurrentMap<Class<?>, List<ConfigurationBeanCustomizer>> cache = this.configurationBeanCustomizersCache;
+        List<ConfigurationBeanCustomizer> applicableCustomizers = cache.get(configurationBeanClass);
+        if (applicableCustomizers == null) {
+            applicableCustomizers = new ArrayList<ConfigurationBeanCustomizer>(customizers.size());
+            for (ConfigurationBeanCustomizer customizer : customizers) {
+                if (!(customizer instanceof TypedConfigurationBeanCustomizer) ||
+                        ((TypedConfigurationBeanCustomizer<?>) customizer).getConfigurationBeanType()
+                                .isAssignableFrom(configurationBeanClass)) {
+                    applicableCustomizers.add(customizer);
+                }
+            }
+            cache.put(configurationBeanClass, applicableCustomizers);
+        }
+        return applicableCustomizers;
+    }
+
     private void customize(String beanName, Object configurationBean) {
-        for (ConfigurationBeanCustomizer customizer : getConfigurationBeanCustomizers()) {
+        for (ConfigurationBeanCustomizer customizer : getConfigurationBeanCustomizers(configurationBean.getClass())) {
             customizer.customize(beanName, configurationBean);
         }
     }
 
+    /**
+     * Rebind the configuration beans affected by the changed properties, only the changed properties will be bound
+     * into the created singletons, and then {@link ConfigurationBeanRecustomizer ConfigurationBeanRecustomizers} are
+     * executed. The removed properties are not reset on the beans.
+     * <p>
+     * The rebinding is serialized, and each bean is bound and recustomized while holding its monitor.
+     *
+     * @param propertySources      {@link PropertySources} which have been changed
+     * @param propertyResolver     {@link PropertyResolver} to resolve the placeholder if present
+     * @param changedPropertyNames the names of changed properties
+     * @return the names of the rebound configuration beans
+     * @see ConfigurationBeanRebinder
+     * @since 1.0.12
+     */
+    public synchronized Set<String> rebindConfigurationBeans(PropertySources propertySources, PropertyResolver propertyResolver,
+                                                Set<String> changedPropertyNames) {
+
+        // the changed sub-property names of affected configuration beans
+        Map<String, Set<String>> affectedBeans = new LinkedHashMap<String, Set<String>>();
+
+        Map<String, String> prefixes = new HashMap<String, String>();
+
+        for (String beanName : getConfigurationBeanNames()) {
+            BeanDefinition beanDefinition = getNullableBeanDefinition(beanName);
+            String prefix = beanDefinition == null ? null : getPrefix(beanDefinition);
+            if (prefix == null) {
+                continue;
+            }
+            String normalizedPrefix = normalizePrefix(prefix);
+            Set<String> changedSubNames = new LinkedHashSet<String>();
+            for (String propertyName : changedPropertyNames) {
+                if (propertyName.startsWith(normalizedPrefix)) {
+                    changedSubNames.add(propertyName.substring(normalizedPrefix.length()));
+                }
+            }
+            if (!changedSubNames.isEmpty()) {
+                affectedBeans.put(beanName, changedSubNames);
+                prefixes.put(beanName, prefix);
+            }
+        }
+
+        if (affectedBeans.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Map<String, Map<String, Object>> subPropertiesMap = getSubProperties(propertySources, propertyResolver,
+                new HashSet<String>(prefixes.values()));
+
+        Set<String> reboundBeanNames = new LinkedHashSet<String>();
+
+        for (Map.Entry<String, Set<String>> entry : affectedBeans.entrySet()) {
+            String beanName = entry.getKey();
+            Set<String> changedSubNames = entry.getValue();
+            Map<String, Object> subProperties = subPropertiesMap.get(prefixes.get(beanName));
+            BeanDefinition beanDefinition = getNullableBeanDefinition(beanName);
+
+            Map<String, Object> changedProperties = new LinkedHashMap<String, Object>();
+            for (String subName : changedSubNames) {
+                if (subProperties.containsKey(subName)) {
+                    changedProperties.put(subName, subProperties.get(subName));
+                }
+            }
+
+            // keep the metadata up-to-date for the beans to be created later
+            Map<String, Object> configurationProperties = new LinkedHashMap<String, Object>(getConfigurationProperties(beanDefinition));
+            configurationProperties.keySet().removeAll(changedSubNames);
+            configurationProperties.putAll(changedProperties);
+            beanDefinition.setAttribute(CONFIGURATION_PROPERTIES_ATTRIBUTE_NAME, configurationProperties);
+
+            if (changedProperties.isEmpty() || !beanFactory.containsSingleton(beanName)) {
+                continue;
+            }
+
+            Object configurationBean = beanFactory.getSingleton(beanName);
+
+            synchronized (configurationBean) {
+                getConfigurationBeanBinder().bind(changedProperties, getIgnoreUnknownFields(beanDefinition),
+                        getIgnoreInvalidFields(beanDefinition), configurationBean);
+
+                recustomize(beanName, configurationBean, changedProperties.keySet());
+            }
+
+            reboundBeanNames.add(beanName);
+
+            if (log.isInfoEnabled()) {
+                log.info("The configuration bean [" + configurationBean + "] have been rebound by the " +
+                        "changed properties [" + changedProperties + "]");
+            }
+        }
+
+        return reboundBeanNames;
+    }
+
+    private void recustomize(String beanName, Object configurationBean, Set<String> changedPropertyNames) {
+        for (ConfigurationBeanCustomizer customizer : getConfigurationBeanCustomizers(configurationBean.getClass())) {
+            if (customizer instanceof ConfigurationBeanRecustomizer) {
+                ((ConfigurationBeanRecustomizer) customizer).recustomize(beanName, configurationBean, changedPropertyNames);
+            }
+        }
+    }
+
     /**
      * Create {@link ConfigurationBeanBinder} instance.
      *
@@ -196,18 +389,39 @@ public class ConfigurationBeanBindingPostProcessor implements BeanPostProcessor,
         return new DefaultConfigurationBeanBinder();
     }
 
-    static void initBeanMetadataAttributes(AbstractBeanDefinition beanDefinition,
+    static void initBeanMetadataAttributes(AbstractBeanDefinition beanDefinition, String prefix,
                                            Map<String, Object> configurationProperties,
                                            boolean ignoreUnknownFields, boolean ignoreInvalidFields) {
+        beanDefinition.setAttribute(PREFIX_ATTRIBUTE_NAME, prefix);
         beanDefinition.setAttribute(CONFIGURATION_PROPERTIES_ATTRIBUTE_NAME, configurationProperties);
         beanDefinition.setAttribute(IGNORE_UNKNOWN_FIELDS_ATTRIBUTE_NAME, ignoreUnknownFields);
         beanDefinition.setAttribute(IGNORE_INVALID_FIELDS_ATTRIBUTE_NAME, ignoreInvalidFields);
     }
 
+    /**
+     * Add the names of configuration beans into the {@link BeanDefinition} of {@link ConfigurationBeanBindingPostProcessor}
+     *
+     * @param beanDefinition the {@link BeanDefinition} of {@link ConfigurationBeanBindingPostProcessor}
+     * @param beanNames      the names of configuration beans
+     * @since 1.0.12
+     */
+    static void addConfigurationBeanNames(BeanDefinition beanDefinition, Collection<String> beanNames) {
+        Set<String> configurationBeanNames = getAttribute(beanDefinition, CONFIGURATION_BEAN_NAMES_ATTRIBUTE_NAME);
+        if (configurationBeanNames == null) {
+            configurationBeanNames = new LinkedHashSet<String>();
+            beanDefinition.setAttribute(CONFIGURATION_BEAN_NAMES_ATTRIBUTE_NAME, configurationBeanNames);
+        }
+        configurationBeanNames.addAll(beanNames);
+    }
+
     private static <T> T getAttribute(BeanDefinition beanDefinition, String attributeName) {
         return (T) beanDefinition.getAttribute(attributeName);
     }
 
+    private static String getPrefix(BeanDefinition beanDefinition) {
+        return getAttribute(beanDefinition, PREFIX_ATTRIBUTE_NAME);
+    }
+
     private static Map<String, Object> getConfigurationProperties(BeanDefinition beanDefinition) {
         return getAttribute(beanDefinition, CONFIGURATION_PROPERTIES_ATTRIBUTE_NAME);
     }
@@ -19,6 +19,7 @@ package com.alibaba.spring.beans.factory.annotation;
 import com.alibaba.spring.util.PropertySourcesUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
@@ -27,28 +28,31 @@ import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
-import org.springframework.core.env.MapPropertySource;
-import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static com.alibaba.spring.beans.factory.annotation.ConfigurationBeanBindingPostProcessor.addConfigurationBeanNames;
 import static com.alibaba.spring.beans.factory.annotation.ConfigurationBeanBindingPostProcessor.initBeanMetadataAttributes;
 import static com.alibaba.spring.beans.factory.annotation.EnableConfigurationBeanBinding.DEFAULT_IGNORE_INVALID_FIELDS;
 import static com.alibaba.spring.beans.factory.annotation.EnableConfigurationBeanBinding.DEFAULT_IGNORE_UNKNOWN_FIELDS;
+import static com.alibaba.spring.beans.factory.annotation.EnableConfigurationBeanBinding.DEFAULT_LAZY;
 import static com.alibaba.spring.beans.factory.annotation.EnableConfigurationBeanBinding.DEFAULT_MULTIPLE;
 import static com.alibaba.spring.util.AnnotationUtils.getAttribute;
 import static com.alibaba.spring.util.AnnotationUtils.getRequiredAttribute;
 import static com.alibaba.spring.util.BeanRegistrar.registerInfrastructureBean;
-import static com.alibaba.spring.util.PropertySourcesUtils.getSubProperties;
 import static com.alibaba.spring.util.PropertySourcesUtils.normalizePrefix;
 import static java.lang.Boolean.valueOf;
-import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.springframework.beans.factory.support.BeanDefinitionBuilder.rootBeanDefinition;
 
 /**
@@ -76,29 +80,57 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
     }
 
     public void registerConfigurationBeanDefinitions(Map<String, Object> attributes, BeanDefinitionRegistry registry) {
+        registerConfigurationBeanDefinitions(singletonList(attributes), registry);
+    }
+
+    /**
+     * Register the configuration bean definitions for multiple {@link EnableConfigurationBeanBinding} attributes,
+     * the sub-properties of all prefixes are resolved in one pass over the property sources.
+     *
+     * @param attributesList the list of {@link EnableConfigurationBeanBinding} attributes
+     * @param registry       {@link BeanDefinitionRegistry}
+     * @since 1.0.12
+     */
+    public void registerConfigurationBeanDefinitions(List<? extends Map<String, Object>> attributesList,
+                                                     BeanDefinitionRegistry registry) {
+
+        List<String> prefixes = new ArrayList<String>(attributesList.size());
+
+        for (Map<String, Object> attributes : attributesList) {
+            String prefix = getRequiredAttribute(attributes, "prefix");
+            prefixes.add(environment.resolvePlaceholders(prefix));
+        }
+
+        Map<String, Map<String, Object>> configurationPropertiesMap = PropertySourcesUtils.getSubProperties(
+                environment.getPropertySources(), environment, new LinkedHashSet<String>(prefixes));
+
+        for (int i = 0; i < prefixes.size(); i++) {
 
-        String prefix = getRequiredAttribute(attributes, "prefix");
+            Map<String, Object> attributes = attributesList.get(i);
 
-        prefix = environment.resolvePlaceholders(prefix);
+            String prefix = prefixes.get(i);
 
-        Class<?> configClass = getRequiredAttribute(attributes, "type");
+            Class<?> configClass = getRequiredAttribute(attributes, "type");
 
-        boolean multiple = getAttribute(attributes, "multiple", valueOf(DEFAULT_MULTIPLE));
+            boolean multiple = getAttribute(attributes, "multiple", valueOf(DEFAULT_MULTIPLE));
 
-        boolean ignoreUnknownFields = getAttribute(attributes, "ignoreUnknownFields", valueOf(DEFAULT_IGNORE_UNKNOWN_FIELDS));
+            boolean ignoreUnknownFields = getAttribute(attributes, "ignoreUnknownFields", valueOf(DEFAULT_IGNORE_UNKNOWN_FIELDS));
 
-        boolean ignoreInvalidFields = getAttribute(attributes, "ignoreInvalidFields", valueOf(DEFAULT_IGNORE_INVALID_FIELDS));
+            boolean ignoreInvalidFields = getAttribute(attributes, "ignoreInvalidFields", valueOf(DEFAULT_IGNORE_INVALID_FIELDS));
 
-        registerConfigurationBeans(prefix, configClass, multiple, ignoreUnknownFields, ignoreInvalidFields, registry);
+            boolean lazy = getAttribute(attributes, "lazy", valueOf(DEFAULT_LAZY));
+
+            registerConfigurationBeans(prefix, configClass, multiple, ignoreUnknownFields, ignoreInvalidFields, lazy,
+                    configurationPropertiesMap.get(prefix), registry);
+        }
     }
 
 
     private void registerConfigurationBeans(String prefix, Class<?> configClass, boolean multiple,
-                                            boolean ignoreUnknownFields, boolean ignoreInvalidFields,
+                                            boolean ignoreUnknownFields, boolean ignoreInvalidFields, boolean lazy,
+                                            Map<String, Object> configurationProperties,
                                             BeanDefinitionRegistry registry) {
 
-        Map<String, Object> configurationProperties = PropertySourcesUtils.getSubProperties(environment.getPropertySources(), environment, prefix);
-
         if (CollectionUtils.isEmpty(configurationProperties)) {
             if (log.isDebugEnabled()) {
                 log.debug("There is no property for binding to configuration class [" + configClass.getName()
@@ -107,20 +139,22 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
             return;
         }
 
-        Set<String> beanNames = multiple ? resolveMultipleBeanNames(configurationProperties) :
-                singleton(resolveSingleBeanName(configurationProperties, configClass, registry));
+        Map<String, Map<String, Object>> beansProperties = multiple ? groupMultipleProperties(configurationProperties) :
+                singletonMap(resolveSingleBeanName(configurationProperties, configClass, registry), configurationProperties);
 
-        for (String beanName : beanNames) {
-            registerConfigurationBean(beanName, configClass, multiple, ignoreUnknownFields, ignoreInvalidFields,
-                    configurationProperties, registry);
+        for (Map.Entry<String, Map<String, Object>> entry : beansProperties.entrySet()) {
+            String beanName = entry.getKey();
+            String beanPrefix = multiple ? normalizePrefix(prefix) + beanName : prefix;
+            registerConfigurationBean(beanName, beanPrefix, configClass, ignoreUnknownFields, ignoreInvalidFields,
+                    lazy, entry.getValue(), registry);
         }
 
-        registerConfigurationBindingBeanPostProcessor(registry);
+        registerConfigurationBindingBeanPostProcessor(beansProperties.keySet(), registry);
     }
 
-    private void registerConfigurationBean(String beanName, Class<?> configClass, boolean multiple,
-                                           boolean ignoreUnknownFields, boolean ignoreInvalidFields,
-                                           Map<String, Object> configurationProperties,
+    private void registerConfigurationBean(String beanName, String prefix, Class<?> configClass,
+                                           boolean ignoreUnknownFields, boolean ignoreInvalidFields, boolean lazy,
+                                           Map<String, Object> subProperties,
                                            BeanDefinitionRegistry registry) {
 
         BeanDefinitionBuilder builder = rootBeanDefinition(configClass);
@@ -129,9 +163,9 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
 
         setSource(beanDefinition);
 
-        Map<String, Object> subProperties = resolveSubProperties(multiple, beanName, configurationProperties);
+        beanDefinition.setLazyInit(lazy);
 
-        initBeanMetadataAttributes(beanDefinition, subProperties, ignoreUnknownFields, ignoreInvalidFields);
+        initBeanMetadataAttributes(beanDefinition, prefix, subProperties, ignoreUnknownFields, ignoreInvalidFields);
 
         registry.registerBeanDefinition(beanName, beanDefinition);
 
@@ -141,26 +175,17 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
         }
     }
 
-    private Map<String, Object> resolveSubProperties(boolean multiple, String beanName,
-                                                     Map<String, Object> configurationProperties) {
-        if (!multiple) {
-            return configurationProperties;
-        }
-
-        MutablePropertySources propertySources = new MutablePropertySources();
-
-        propertySources.addLast(new MapPropertySource("_", configurationProperties));
-
-        return getSubProperties(propertySources, environment, normalizePrefix(beanName));
-    }
-
     private void setSource(AbstractBeanDefinition beanDefinition) {
         beanDefinition.setSource(ENABLE_CONFIGURATION_BINDING_CLASS);
     }
 
-    private void registerConfigurationBindingBeanPostProcessor(BeanDefinitionRegistry registry) {
+    private void registerConfigurationBindingBeanPostProcessor(Set<String> configurationBeanNames,
+                                                               BeanDefinitionRegistry registry) {
         registerInfrastructureBean(registry, ConfigurationBeanBindingPostProcessor.BEAN_NAME,
                 ConfigurationBeanBindingPostProcessor.class);
+        BeanDefinition processorDefinition = registry.getBeanDefinition(ConfigurationBeanBindingPostProcessor.BEAN_NAME);
+        // Let the processor detect the configuration beans by their names
+        addConfigurationBeanNames(processorDefinition, configurationBeanNames);
     }
 
     @Override
@@ -172,11 +197,21 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
 
     }
 
-    private Set<String> resolveMultipleBeanNames(Map<String, Object> properties) {
+    /**
+     * Group the properties by their first path segment in one pass, the segment is the bean name, the rest is the
+     * property name of the bean
+     *
+     * @param properties the configuration properties
+     * @return non-null {@link Map}, the key is the bean name, the value is the sub-properties of the bean
+     * @since 1.0.12
+     */
+    private Map<String, Map<String, Object>> groupMultipleProperties(Map<String, Object> properties) {
 
-        Set<String> beanNames = new LinkedHashSet<String>();
+        Map<String, Map<String, Object>> beansProperties = new LinkedHashMap<String, Map<String, Object>>();
 
-        for (String propertyName : properties.keySet()) {
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+
+            String propertyName = entry.getKey();
 
             int index = propertyName.indexOf(".");
 
@@ -184,12 +219,23 @@ public class ConfigurationBeanBindingRegistrar implements ImportBeanDefinitionRe
 
                 String beanName = propertyName.substring(0, index);
 
-                beanNames.add(beanName);
+                Map<String, Object> subProperties = beansProperties.get(beanName);
+
+                if (subProperties == null) {
+                    subProperties = new LinkedHashMap<String, Object>();
+                    beansProperties.put(beanName, subProperties);
+                }
+
+                String subName = propertyName.substring(index + 1);
+
+                if (!subProperties.containsKey(subName)) { // take first one
+                    subProperties.put(subName, entry.getValue());
+                }
             }
 
         }
 
-        return beanNames;
+        return beansProperties;
 
     }
 
@@ -25,6 +25,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.util.Assert;
 
+import static java.util.Arrays.asList;
+
 /**
  * The {@link ImportBeanDefinitionRegistrar Registrar class} for {@link EnableConfigurationBeanBindings}
  *
@@ -46,9 +48,7 @@ public class ConfigurationBeanBindingsRegister implements ImportBeanDefinitionRe
 
         registrar.setEnvironment(environment);
 
-        for (AnnotationAttributes element : annotationAttributes) {
-            registrar.registerConfigurationBeanDefinitions(element, registry);
-        }
+        registrar.registerConfigurationBeanDefinitions(asList(annotationAttributes), registry);
     }
 
     @Override
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.beans.factory.annotation;
+
+import com.alibaba.spring.context.config.ConfigurationBeanRecustomizer;
+import com.alibaba.spring.context.config.PropertySourceChangeListener;
+import com.alibaba.spring.context.config.PropertySourceChangeNotifier;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.Assert;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The rebinder of the configuration beans, which starts the {@link PropertySourceChangeNotifier} after the
+ * {@link ApplicationContext} is refreshed, and then rebinds the configuration beans affected by the changed
+ * properties via {@link ConfigurationBeanBindingPostProcessor#rebindConfigurationBeans}.
+ * <p>
+ * It's not enabled by default, the bean of {@link ConfigurationBeanRebinder} should be declared explicitly.
+ *
+ * @see PropertySourceChangeNotifier
+ * @see ConfigurationBeanRecustomizer
+ * @since 1.0.12
+ */
+public class ConfigurationBeanRebinder implements PropertySourceChangeListener, ApplicationListener<ContextRefreshedEvent>,
+        ApplicationContextAware, DisposableBean {
+
+    private final PropertySourceChangeNotifier notifier;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private ConfigurableApplicationContext context;
+
+    public ConfigurationBeanRebinder(PropertySourceChangeNotifier notifier) {
+        Assert.notNull(notifier, "The PropertySourceChangeNotifier must not be null");
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (context == event.getApplicationContext() && started.compareAndSet(false, true)) {
+            notifier.start(context.getEnvironment(), this);
+        }
+    }
+
+    @Override
+    public void onPropertiesChanged(Set<String> changedPropertyNames) {
+        if (!context.containsBean(ConfigurationBeanBindingPostProcessor.BEAN_NAME)) {
+            return;
+        }
+        ConfigurationBeanBindingPostProcessor processor = context.getBean(ConfigurationBeanBindingPostProcessor.BEAN_NAME,
+                ConfigurationBeanBindingPostProcessor.class);
+        ConfigurableEnvironment environment = context.getEnvironment();
+        processor.rebindConfigurationBeans(environment.getPropertySources(), environment, changedPropertyNames);
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        Assert.isInstanceOf(ConfigurableApplicationContext.class, applicationContext);
+        this.context = (ConfigurableApplicationContext) applicationContext;
+    }
+
+    @Override
+    public void destroy() {
+        notifier.stop();
+    }
+}
@@ -62,6 +62,13 @@ public @interface EnableConfigurationBeanBinding {
      */
     boolean DEFAULT_IGNORE_INVALID_FIELDS = true;
 
+    /**
+     * The default value for {@link #lazy()}
+     *
+     * @since 1.0.12
+     */
+    boolean DEFAULT_LAZY = false;
+
     /**
      * The name prefix of the properties that are valid to bind to the type of configuration.
      *
@@ -103,4 +110,14 @@ public @interface EnableConfigurationBeanBinding {
      * @see #DEFAULT_IGNORE_INVALID_FIELDS
      */
     boolean ignoreInvalidFields() default DEFAULT_IGNORE_INVALID_FIELDS;
+
+    /**
+     * It indicates whether the configuration beans are lazy-initialized, that is, they are instantiated and bound
+     * only when they are requested at the first time.
+     *
+     * @return the default value is <code>false</code>
+     * @see #DEFAULT_LAZY
+     * @since 1.0.12
+     */
+    boolean lazy() default DEFAULT_LAZY;
 }
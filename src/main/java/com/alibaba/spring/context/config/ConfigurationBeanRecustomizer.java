@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import com.alibaba.spring.beans.factory.annotation.ConfigurationBeanBindingPostProcessor;
+
+import java.util.Set;
+
+/**
+ * The {@link ConfigurationBeanCustomizer} which will be executed again after the configuration bean is rebound by the
+ * changed properties.
+ *
+ * @see ConfigurationBeanBindingPostProcessor#rebindConfigurationBeans
+ * @since 1.0.12
+ */
+public interface ConfigurationBeanRecustomizer extends ConfigurationBeanCustomizer {
+
+    /**
+     * Re-customize the configuration bean after its rebinding
+     *
+     * @param beanName             the name of the configuration bean
+     * @param configurationBean    the configuration bean
+     * @param changedPropertyNames the names of the changed properties without the prefix
+     */
+    void recustomize(String beanName, Object configurationBean, Set<String> changedPropertyNames);
+
+}
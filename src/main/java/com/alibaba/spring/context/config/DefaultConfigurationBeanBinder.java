@@ -16,10 +16,22 @@
  */
 package com.alibaba.spring.context.config;
 
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.MutablePropertyValues;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.validation.DataBinder;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.springframework.beans.BeanUtils.getPropertyDescriptors;
+import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
 
 /**
  * The default {@link ConfigurationBeanBinder} implementation
@@ -30,17 +42,189 @@ import java.util.Map;
  */
 public class DefaultConfigurationBeanBinder implements ConfigurationBeanBinder {
 
+    /**
+     * The cache of {@link BindingPlan} per the class of configuration bean
+     *
+     * @since 1.0.12
+     */
+    private final ConcurrentMap<Class<?>, BindingPlan> bindingPlansCache =
+            new ConcurrentReferenceHashMap<Class<?>, BindingPlan>();
+
+    /**
+     * Whether {@link #initDataBinder(DataBinder)} is overridden, if so, the {@link DataBinder} may have the allowed,
+     * disallowed or required fields, the custom editors or the conversion service, thus all properties are bound by it
+     *
+     * @since 1.0.12
+     */
+    private final boolean dataBinderCustomized = isDataBinderCustomized(getClass());
+
     @Override
     public void bind(Map<String, Object> configurationProperties, boolean ignoreUnknownFields,
                      boolean ignoreInvalidFields, Object configurationBean) {
+
+        if (dataBinderCustomized) {
+            DataBinder dataBinder = createDataBinder(configurationBean, ignoreUnknownFields, ignoreInvalidFields);
+            // Convert Map to MutablePropertyValues
+            dataBinder.bind(new MutablePropertyValues(configurationProperties));
+            return;
+        }
+
+        Binding binding = new Binding(configurationBean, ignoreUnknownFields, ignoreInvalidFields);
+
+        BindingPlan bindingPlan = getBindingPlan(configurationBean.getClass());
+
+        for (Map.Entry<String, Object> entry : configurationProperties.entrySet()) {
+            String propertyName = entry.getKey();
+            Object propertyValue = entry.getValue();
+            Method setter = propertyValue instanceof String ? bindingPlan.getStringSetter(propertyName) : null;
+            if (setter == null) {
+                binding.addPropertyValue(propertyName, propertyValue);
+            } else { // Bind the property which can be set directly
+                binding.invokeSetter(setter, propertyName, propertyValue);
+            }
+        }
+
+        binding.flush();
+    }
+
+    /**
+     * Initialize the {@link DataBinder} before binding, the subclass may customize it, e.g. the allowed fields or the
+     * custom editors. If this method is overridden, the {@link String} properties are not set directly anymore.
+     *
+     * @param dataBinder {@link DataBinder}
+     * @since 1.0.12
+     */
+    protected void initDataBinder(DataBinder dataBinder) {
+    }
+
+    private DataBinder createDataBinder(Object configurationBean, boolean ignoreUnknownFields, boolean ignoreInvalidFields) {
         DataBinder dataBinder = new DataBinder(configurationBean);
         // Set ignored*
         dataBinder.setIgnoreInvalidFields(ignoreUnknownFields);
         dataBinder.setIgnoreUnknownFields(ignoreInvalidFields);
-        // Get properties under specified prefix from PropertySources
-        // Convert Map to MutablePropertyValues
-        MutablePropertyValues propertyValues = new MutablePropertyValues(configurationProperties);
-        // Bind
-        dataBinder.bind(propertyValues);
+        initDataBinder(dataBinder);
+        return dataBinder;
+    }
+
+    private static boolean isDataBinderCustomized(Class<?> binderClass) {
+        Method method = findMethod(binderClass, "initDataBinder", DataBinder.class);
+        return method != null && !DefaultConfigurationBeanBinder.class.equals(method.getDeclaringClass());
+    }
+
+    private BindingPlan getBindingPlan(Class<?> configurationClass) {
+        BindingPlan bindingPlan = bindingPlansCache.get(configurationClass);
+        if (bindingPlan == null) {
+            bindingPlan = new BindingPlan(configurationClass);
+            BindingPlan existingBindingPlan = bindingPlansCache.putIfAbsent(configurationClass, bindingPlan);
+            if (existingBindingPlan != null) {
+                bindingPlan = existingBindingPlan;
+            }
+        }
+        return bindingPlan;
+    }
+
+    /**
+     * The binding of a configuration bean, the {@link DataBinder} is only created if any property can't be set directly
+     * or any setter fails
+     *
+     * @since 1.0.12
+     */
+    private class Binding {
+
+        private final Object configurationBean;
+
+        private final boolean ignoreUnknownFields;
+
+        private final boolean ignoreInvalidFields;
+
+        private DataBinder dataBinder;
+
+        /**
+         * The properties bound by {@link DataBinder}, they are flushed before the next setter is invoked to keep the
+         * order
+         */
+        private MutablePropertyValues propertyValues = new MutablePropertyValues();
+
+        private Binding(Object configurationBean, boolean ignoreUnknownFields, boolean ignoreInvalidFields) {
+            this.configurationBean = configurationBean;
+            this.ignoreUnknownFields = ignoreUnknownFields;
+            this.ignoreInvalidFields = ignoreInvalidFields;
+        }
+
+        private void addPropertyValue(String propertyName, Object propertyValue) {
+            propertyValues.addPropertyValue(propertyName, propertyValue);
+        }
+
+        /**
+         * Invoke the setter directly, the error is processed as {@link DataBinder} does
+         */
+        private void invokeSetter(Method setter, String propertyName, Object propertyValue) {
+            flush();
+            Throwable error;
+            try {
+                setter.invoke(configurationBean, propertyValue);
+                return;
+            } catch (InvocationTargetException e) {
+                error = e.getTargetException();
+            } catch (IllegalAccessException e) {
+                error = e;
+            }
+            DataBinder dataBinder = getDataBinder();
+            PropertyChangeEvent event = new PropertyChangeEvent(configurationBean, propertyName, null, propertyValue);
+            dataBinder.getBindingErrorProcessor().processPropertyAccessException(
+                    new MethodInvocationException(event, error), dataBinder.getBindingResult());
+        }
+
+        private void flush() {
+            if (!propertyValues.isEmpty()) {
+                getDataBinder().bind(propertyValues);
+                propertyValues = new MutablePropertyValues();
+            }
+        }
+
+        private DataBinder getDataBinder() {
+            if (dataBinder == null) {
+                dataBinder = createDataBinder(configurationBean, ignoreUnknownFields, ignoreInvalidFields);
+            }
+            return dataBinder;
+        }
+    }
+
+    /**
+     * The binding plan of the configuration class, which is built once by the introspection. The {@link String}
+     * properties whose values are {@link String} need no conversion, thus their setters are invoked directly,
+     * the others are still bound by {@link DataBinder}.
+     *
+     * @since 1.0.12
+     */
+    private static class BindingPlan {
+
+        /**
+         * The setters of the {@link String} properties, the key is the property name
+         */
+        private final Map<String, Method> stringSetters;
+
+        private BindingPlan(Class<?> configurationClass) {
+            Map<String, Method> stringSetters = new HashMap<String, Method>();
+            for (PropertyDescriptor propertyDescriptor : getPropertyDescriptors(configurationClass)) {
+                Method writeMethod = propertyDescriptor.getWriteMethod();
+                if (writeMethod != null && String.class.equals(propertyDescriptor.getPropertyType())
+                        && propertyDescriptor.getPropertyEditorClass() == null) {
+                    makeAccessible(writeMethod);
+                    stringSetters.put(propertyDescriptor.getName(), writeMethod);
+                }
+            }
+            this.stringSetters = stringSetters;
+        }
+
+        /**
+         * Get the setter of the {@link String} property
+         *
+         * @param propertyName the name of property
+         * @return <code>null</code> if absent
+         */
+        private Method getStringSetter(String propertyName) {
+            return stringSetters.get(propertyName);
+        }
     }
 }
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.CRC32;
+
+import static com.alibaba.spring.util.PropertySourcesUtils.getPropertyNames;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.util.ObjectUtils.nullSafeEquals;
+
+/**
+ * The {@link PropertySourceChangeNotifier} implementation for the local properties file, which polls the checksum of
+ * the file content periodically. A change is reloaded only when the content stays the same across two consecutive
+ * polls, so that a file being written is never loaded half-way.
+ * <p>
+ * When started, the notifier installs a reloadable {@link EnumerablePropertySource} with the given name into the
+ * {@link ConfigurableEnvironment} on the starting thread, the reloads only swap its snapshot of the properties,
+ * thus the {@link MutablePropertySources} are never modified by the polling thread.
+ *
+ * @see EnumerablePropertySource
+ * @since 1.0.12
+ */
+public class FilePropertySourceChangeNotifier implements PropertySourceChangeNotifier {
+
+    /**
+     * The default interval in milliseconds to poll the file
+     */
+    public static final long DEFAULT_INTERVAL = 1000L;
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    private final String propertySourceName;
+
+    private final File file;
+
+    private final long interval;
+
+    private ScheduledExecutorService scheduler;
+
+    private FilePropertySource propertySource;
+
+    /**
+     * The checksum of the loaded content
+     */
+    private long checksum;
+
+    /**
+     * The checksum of the content seen by the last poll, which is not loaded yet
+     */
+    private long pendingChecksum;
+
+    public FilePropertySourceChangeNotifier(String propertySourceName, File file) {
+        this(propertySourceName, file, DEFAULT_INTERVAL);
+    }
+
+    public FilePropertySourceChangeNotifier(String propertySourceName, File file, long interval) {
+        Assert.hasText(propertySourceName, "The name of PropertySource must not be empty");
+        Assert.notNull(file, "The file must not be null");
+        Assert.isTrue(interval > 0, "The interval must be positive");
+        this.propertySourceName = propertySourceName;
+        this.file = file;
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void start(ConfigurableEnvironment environment, final PropertySourceChangeListener listener) {
+
+        Assert.state(scheduler == null, "The notifier has been started");
+
+        MutablePropertySources propertySources = environment.getPropertySources();
+
+        byte[] content;
+        try {
+            content = readContent();
+        } catch (IOException e) {
+            throw new IllegalStateException("The properties file [" + file + "] can't be loaded", e);
+        }
+
+        this.checksum = checksum(content);
+        this.pendingChecksum = this.checksum;
+        this.propertySource = new FilePropertySource(propertySourceName, file, loadProperties(content));
+
+        PropertySource<?> oldPropertySource = propertySources.get(propertySourceName);
+
+        if (oldPropertySource == null) {
+            propertySources.addLast(propertySource);
+        } else {
+            propertySources.replace(propertySourceName, propertySource);
+            // the replaced one may differ from the file
+            notifyChanges(getChangedPropertyNames(oldPropertySource, propertySource), listener);
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("property-source-change-notifier-");
+        threadFactory.setDaemon(true);
+
+        scheduler = newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkChanges(listener);
+                } catch (Exception e) {
+                    // keep polling for the next change
+                    if (log.isErrorEnabled()) {
+                        log.error("The properties file [" + file + "] can't be reloaded", e);
+                    }
+                }
+            }
+        }, interval, interval, MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void checkChanges(PropertySourceChangeListener listener) throws IOException {
+
+        byte[] content = readContent();
+
+        long checksum = checksum(content);
+
+        long pendingChecksum = this.pendingChecksum;
+
+        this.pendingChecksum = checksum;
+
+        if (checksum == this.checksum || checksum != pendingChecksum) {
+            // unchanged, or the file may be still being written
+            return;
+        }
+
+        Map<String, Object> properties = loadProperties(content);
+
+        FilePropertySource oldPropertySource = new FilePropertySource(propertySourceName, file, propertySource.properties);
+
+        propertySource.properties = properties;
+
+        this.checksum = checksum;
+
+        notifyChanges(getChangedPropertyNames(oldPropertySource, propertySource), listener);
+    }
+
+    private void notifyChanges(Set<String> changedPropertyNames, PropertySourceChangeListener listener) {
+        if (!changedPropertyNames.isEmpty()) {
+            if (log.isInfoEnabled()) {
+                log.info("The properties " + changedPropertyNames + " of the file [" + file + "] have been changed");
+            }
+            listener.onPropertiesChanged(changedPropertyNames);
+        }
+    }
+
+    private byte[] readContent() throws IOException {
+        return file.exists() ? FileCopyUtils.copyToByteArray(file) : new byte[0];
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content);
+        return crc32.getValue();
+    }
+
+    private Map<String, Object> loadProperties(byte[] content) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            // never happens on the bytes in memory
+            throw new IllegalStateException(e);
+        }
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (String propertyName : properties.stringPropertyNames()) {
+            map.put(propertyName, properties.getProperty(propertyName));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private Set<String> getChangedPropertyNames(PropertySource<?> oldPropertySource, PropertySource<?> newPropertySource) {
+
+        Set<String> changedPropertyNames = new LinkedHashSet<String>();
+
+        if (oldPropertySource instanceof EnumerablePropertySource) {
+            for (String propertyName : getPropertyNames(oldPropertySource)) {
+                if (!nullSafeEquals(oldPropertySource.getProperty(propertyName), newPropertySource.getProperty(propertyName))) {
+                    changedPropertyNames.add(propertyName);
+                }
+            }
+        }
+
+        for (String propertyName : getPropertyNames(newPropertySource)) {
+            if (!nullSafeEquals(oldPropertySource.getProperty(propertyName), newPropertySource.getProperty(propertyName))) {
+                changedPropertyNames.add(propertyName);
+            }
+        }
+
+        return changedPropertyNames;
+    }
+
+    /**
+     * The {@link EnumerablePropertySource} of the properties file, whose snapshot of the properties is swapped
+     * atomically on reload.
+     */
+    private static class FilePropertySource extends EnumerablePropertySource<File> {
+
+        private volatile Map<String, Object> properties;
+
+        FilePropertySource(String name, File file, Map<String, Object> properties) {
+            super(name, file);
+            this.properties = properties;
+        }
+
+        @Override
+        public String[] getPropertyNames() {
+            Set<String> propertyNames = properties.keySet();
+            return propertyNames.toArray(new String[propertyNames.size()]);
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return properties.get(name);
+        }
+    }
+}
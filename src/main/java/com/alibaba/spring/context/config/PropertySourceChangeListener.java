@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import java.util.EventListener;
+import java.util.Set;
+
+/**
+ * The listener of the changed properties in the {@link org.springframework.core.env.PropertySource PropertySources}
+ *
+ * @see PropertySourceChangeNotifier
+ * @since 1.0.12
+ */
+public interface PropertySourceChangeListener extends EventListener {
+
+    /**
+     * Callback after the properties have been changed, the property sources have been updated before
+     *
+     * @param changedPropertyNames the names of the added, modified or removed properties
+     */
+    void onPropertiesChanged(Set<String> changedPropertyNames);
+
+}
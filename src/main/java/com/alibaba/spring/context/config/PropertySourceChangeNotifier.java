@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * The SPI to watch the changes of the {@link org.springframework.core.env.PropertySource PropertySources} in the
+ * {@link ConfigurableEnvironment}, which updates the changed {@link org.springframework.core.env.PropertySource} and
+ * then notifies the {@link PropertySourceChangeListener}.
+ *
+ * @see FilePropertySourceChangeNotifier
+ * @since 1.0.12
+ */
+public interface PropertySourceChangeNotifier {
+
+    /**
+     * Start to watch the changes
+     *
+     * @param environment {@link ConfigurableEnvironment}
+     * @param listener    {@link PropertySourceChangeListener}
+     */
+    void start(ConfigurableEnvironment environment, PropertySourceChangeListener listener);
+
+    /**
+     * Stop to watch the changes
+     */
+    void stop();
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import com.alibaba.spring.beans.factory.annotation.ConfigurationBeanBindingPostProcessor;
+
+import static org.springframework.core.GenericTypeResolver.resolveTypeArgument;
+
+/**
+ * The {@link ConfigurationBeanCustomizer} for the configuration beans of the specified type, which is resolved from
+ * the generic type argument. {@link ConfigurationBeanBindingPostProcessor} only executes it for the configuration beans
+ * whose types are assignable to the specified type, thus the subclass needs no <code>instanceof</code> filtering.
+ *
+ * @param <T> the type of configuration bean
+ * @see ConfigurationBeanCustomizer
+ * @since 1.0.12
+ */
+public abstract class TypedConfigurationBeanCustomizer<T> implements ConfigurationBeanCustomizer {
+
+    private final Class<?> configurationBeanType;
+
+    protected TypedConfigurationBeanCustomizer() {
+        Class<?> configurationBeanType = resolveTypeArgument(getClass(), TypedConfigurationBeanCustomizer.class);
+        this.configurationBeanType = configurationBeanType == null ? Object.class : configurationBeanType;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void customize(String beanName, Object configurationBean) {
+        if (configurationBeanType.isInstance(configurationBean)) {
+            doCustomize(beanName, (T) configurationBean);
+        }
+    }
+
+    /**
+     * Customize the configuration bean of the specified type
+     *
+     * @param beanName          the name of the configuration bean
+     * @param configurationBean the configuration bean
+     */
+    protected abstract void doCustomize(String beanName, T configurationBean);
+
+    /**
+     * Get the type of configuration bean
+     *
+     * @return non-null
+     */
+    public Class<?> getConfigurationBeanType() {
+        return configurationBeanType;
+    }
+}
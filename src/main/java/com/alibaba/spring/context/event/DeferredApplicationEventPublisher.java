@@ -16,23 +16,49 @@
  */
 package com.alibaba.spring.context.event;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultSingletonBeanRegistry;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 
+import java.io.File;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static org.springframework.util.Assert.isTrue;
 import static org.springframework.util.Assert.notNull;
 import static org.springframework.util.ReflectionUtils.findField;
 import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.getField;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
 
 /**
  * Before Spring Framework 4.2, {@link AbstractApplicationContext} is an implementation of {@link ApplicationEventPublisher}
@@ -48,12 +74,26 @@ import static org.springframework.util.ReflectionUtils.findMethod;
  * early application events}, {@link DeferredApplicationEventPublisher} only delegates the
  * {@link ConfigurableApplicationContext Application Context} that was injected by
  * {@link #DeferredApplicationEventPublisher(ApplicationEventPublisher) constructor}.
+ * <p>
+ * Optionally, the events could be published asynchronously by
+ * {@link #DeferredApplicationEventPublisher(ApplicationEventPublisher, Executor, int, int, BackpressurePolicy) the
+ * constructor with an Executor}, they are buffered in a bounded queue and then dispatched to the delegate in order
+ * by one thread at a time, once the queue is full, the {@link BackpressurePolicy} will be applied. The buffered events
+ * are {@link #flush() flushed} when the context is closed. If the events are deferred, they are published
+ * asynchronously after the deferred events are replayed.
+ * <p>
+ * The deferred events could be bounded in memory by {@link #setMaxInMemoryDeferredEvents(int)}, the overflowed events
+ * are spilled into a local file and streamed back when they are replayed. Moreover, the deferred events could be
+ * coalesced by {@link EventCoalescingPolicy}, and replayed in parallel by {@link #setReplayExecutor(Executor)}.
+ * The publisher is {@link #close() closed} when the context is closed or fails to refresh, the spill file is deleted.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @since 1.0.4
  */
 public class DeferredApplicationEventPublisher implements ApplicationEventPublisher, ApplicationListener<ContextRefreshedEvent> {
 
+    private final Log log = LogFactory.getLog(getClass());
+
     /**
      * The field name of {@link AbstractApplicationContext#earlyApplicationEvents}
      */
@@ -74,6 +114,12 @@ public class DeferredApplicationEventPublisher implements ApplicationEventPublis
      */
     private static final Method PUBLISH_EVENT_METHOD = detectPublishEventMethod();
 
+    /**
+     * The cache of {@link ContextCapabilities} for the types of {@link ConfigurableApplicationContext}
+     */
+    private static final ConcurrentMap<Class<?>, ContextCapabilities> CONTEXT_CAPABILITIES_CACHE =
+            new ConcurrentReferenceHashMap<Class<?>, ContextCapabilities>();
+
     private final ApplicationEventPublisher delegate;
 
     /**
@@ -81,21 +127,242 @@ public class DeferredApplicationEventPublisher implements ApplicationEventPublis
      */
     private final ConfigurableApplicationContext context;
 
-    private final ConcurrentLinkedQueue<ApplicationEvent> deferredEvents = new ConcurrentLinkedQueue<ApplicationEvent>();
+    /**
+     * The capabilities of {@link #context}, detected once by its type
+     */
+    private final ContextCapabilities contextCapabilities;
+
+    private final DeferredEventBuffer deferredEvents = new DeferredEventBuffer();
+
+    /**
+     * Whether the events are deferred until {@link ContextRefreshedEvent} or not
+     */
+    private volatile boolean deferring;
+
+    /**
+     * The {@link Executor} to dispatch the events asynchronously, or <code>null</code> if synchronous
+     */
+    private final Executor dispatcherExecutor;
+
+    /**
+     * The bounded buffer of the events to be dispatched asynchronously, or <code>null</code> if synchronous
+     */
+    private final BlockingQueue<Object> asyncEvents;
+
+    /**
+     * The max number of events dispatched by one run of the dispatcher before it yields the thread
+     */
+    private final int maxEventsPerDispatch;
+
+    private final BackpressurePolicy backpressurePolicy;
+
+    /**
+     * Whether the dispatcher is scheduled or not, at most one dispatcher runs at the same time to keep the order
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    /**
+     * The events taken from {@link #asyncEvents} but not published yet, guarded by {@link #dispatchLock}
+     */
+    private final Queue<Object> pendingEvents = new ConcurrentLinkedQueue<Object>();
+
+    /**
+     * The lock of taking and publishing the buffered events, which keeps the order between the dispatcher,
+     * {@link #flush()} and {@link BackpressurePolicy#CALLER_RUNS}
+     */
+    private final Lock dispatchLock = new ReentrantLock();
+
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    private volatile Thread dispatcherThread;
+
+    /**
+     * The {@link Executor} to replay the partitions of deferred events concurrently, or <code>null</code> if
+     * the deferred events are replayed sequentially
+     */
+    private Executor replayExecutor;
+
+    private EventPartitioner eventPartitioner;
 
-    private final boolean shouldDefer;
+    /**
+     * The timeout in milliseconds to wait for the completion of the parallel replay, non-positive means no timeout
+     */
+    private long replayTimeout;
 
     /**
      * @param delegate {@link ApplicationEventPublisher}
      */
     public DeferredApplicationEventPublisher(ApplicationEventPublisher delegate) {
+        this(delegate, null, 0, 0, null);
+    }
+
+    /**
+     * @param delegate           {@link ApplicationEventPublisher}
+     * @param dispatcherExecutor the {@link Executor} to dispatch the events asynchronously, if <code>null</code>,
+     *                           the events will be published synchronously
+     * @param capacity             the capacity of the buffer for the asynchronous events
+     * @param maxEventsPerDispatch the max number of events dispatched by one run of the dispatcher, and then the
+     *                             thread of {@link Executor} is yielded to the others
+     * @param backpressurePolicy   {@link BackpressurePolicy} if the buffer is full
+     * @since 1.0.12
+     */
+    public DeferredApplicationEventPublisher(ApplicationEventPublisher delegate, Executor dispatcherExecutor,
+                                             int capacity, int maxEventsPerDispatch,
+                                             BackpressurePolicy backpressurePolicy) {
         notNull(delegate, "The ApplicationEventPublisher argument must not be null");
         this.delegate = delegate;
         this.context = delegate instanceof ConfigurableApplicationContext ? (ConfigurableApplicationContext) delegate : null;
+        this.contextCapabilities = context != null ? getContextCapabilities(context.getClass()) : ContextCapabilities.NONE;
         if (this.context != null) {
             this.context.addApplicationListener(this);
+            this.context.addApplicationListener(new ContextClosedListener());
+            registerDisposableBean(this.context);
+        }
+        this.deferring = !supportsEarlyApplicationEvents() || !isInitializedApplicationEventMulticaster();
+        this.dispatcherExecutor = dispatcherExecutor;
+        if (dispatcherExecutor != null) {
+            isTrue(capacity > 0, "The capacity must be positive");
+            isTrue(maxEventsPerDispatch > 0, "The max number of events per dispatch must be positive");
+            notNull(backpressurePolicy, "The BackpressurePolicy argument must not be null");
+            this.asyncEvents = new ArrayBlockingQueue<Object>(capacity);
+        } else {
+            this.asyncEvents = null;
+        }
+        this.maxEventsPerDispatch = maxEventsPerDispatch;
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    /**
+     * Register the {@link DisposableBean} to {@link #close()} the publisher when the singletons of context are
+     * destroyed, which covers the context failed to refresh that doesn't publish {@link ContextClosedEvent}
+     *
+     * @param context {@link ConfigurableApplicationContext}
+     */
+    private void registerDisposableBean(ConfigurableApplicationContext context) {
+        ConfigurableListableBeanFactory beanFactory;
+        try {
+            beanFactory = context.getBeanFactory();
+        } catch (IllegalStateException e) {
+            // the BeanFactory is not created or has been closed
+            return;
+        }
+        if (beanFactory instanceof DefaultSingletonBeanRegistry) {
+            String beanName = getClass().getName() + "#" + Integer.toHexString(System.identityHashCode(this));
+            ((DefaultSingletonBeanRegistry) beanFactory).registerDisposableBean(beanName, new DisposableBean() {
+                @Override
+                public void destroy() {
+                    close();
+                }
+            });
+        }
+    }
+
+    /**
+     * Set whether the events are published directly rather than deferred if the
+     * {@link AbstractApplicationContext#applicationEventMulticaster ApplicationEventMulticaster} of the context has
+     * been initialized before Spring 4.2, the default value is <code>false</code>. It takes effect only if no event
+     * has been deferred yet, thus it should be set before the events are published.
+     *
+     * @param publishDirectlyIfReady whether the events are published directly if the context is ready
+     * @since 1.0.12
+     */
+    public void setPublishDirectlyIfReady(boolean publishDirectlyIfReady) {
+        if (publishDirectlyIfReady && deferring) {
+            synchronized (deferredEvents) {
+                if (deferredEvents.size() == 0 && isApplicationEventMulticasterReady()) {
+                    deferring = false;
+                }
+            }
         }
-        this.shouldDefer = !supportsEarlyApplicationEvents() || !isInitializedApplicationEventMulticaster();
+    }
+
+    /**
+     * Set the max number of the deferred events kept in memory, the overflowed events will be spilled into a local
+     * file until they are replayed, the default value is unbounded. It takes effect only if both
+     * {@link #setDeferredEventSerializer(Serializer) Serializer} and
+     * {@link #setDeferredEventDeserializer(Deserializer) Deserializer} are set.
+     *
+     * @param maxInMemoryDeferredEvents the max number of the deferred events kept in memory
+     * @since 1.0.12
+     */
+    public void setMaxInMemoryDeferredEvents(int maxInMemoryDeferredEvents) {
+        deferredEvents.setMaxInMemoryEvents(maxInMemoryDeferredEvents);
+    }
+
+    /**
+     * Set the {@link Serializer} of the spilled deferred events, the deferred event will be rejected if it should be
+     * spilled but can't be serialized. {@link java.util.EventObject#source} must be kept by the {@link Serializer},
+     * it's transient in Java Serialization.
+     *
+     * @param serializer {@link Serializer}
+     * @since 1.0.12
+     */
+    public void setDeferredEventSerializer(Serializer<Object> serializer) {
+        deferredEvents.setSerializer(serializer);
+    }
+
+    /**
+     * Set the {@link Deserializer} of the spilled deferred events
+     *
+     * @param deserializer {@link Deserializer}
+     * @since 1.0.12
+     */
+    public void setDeferredEventDeserializer(Deserializer<Object> deserializer) {
+        deferredEvents.setDeserializer(deserializer);
+    }
+
+    /**
+     * Set the directory of the spill file of the deferred events, the default is the temporary-file directory
+     *
+     * @param spillDirectory the directory of the spill file
+     * @since 1.0.12
+     */
+    public void setDeferredEventSpillDirectory(File spillDirectory) {
+        deferredEvents.setSpillDirectory(spillDirectory);
+    }
+
+    /**
+     * Set the {@link EventCoalescingPolicy} of the deferred events, only the latest one of the coalesced events will
+     * be replayed
+     *
+     * @param eventCoalescingPolicy {@link EventCoalescingPolicy}
+     * @since 1.0.12
+     */
+    public void setEventCoalescingPolicy(EventCoalescingPolicy eventCoalescingPolicy) {
+        deferredEvents.setCoalescingPolicy(eventCoalescingPolicy);
+    }
+
+    /**
+     * Set the {@link Executor} to replay the deferred events in parallel, the deferred events are partitioned by
+     * {@link #setEventPartitioner(EventPartitioner) EventPartitioner}, the order is kept in each partition.
+     *
+     * @param replayExecutor the bounded {@link Executor}, the deferred events are replayed sequentially if
+     *                       <code>null</code>
+     * @since 1.0.12
+     */
+    public void setReplayExecutor(Executor replayExecutor) {
+        this.replayExecutor = replayExecutor;
+    }
+
+    /**
+     * Set the {@link EventPartitioner} for the parallel replay, all events are in the same partition by default
+     *
+     * @param eventPartitioner {@link EventPartitioner}
+     * @since 1.0.12
+     */
+    public void setEventPartitioner(EventPartitioner eventPartitioner) {
+        this.eventPartitioner = eventPartitioner;
+    }
+
+    /**
+     * Set the timeout to wait for the completion of the parallel replay, the rest of deferred events will still be
+     * replayed in background after the timeout
+     *
+     * @param replayTimeout the timeout in milliseconds, non-positive means no timeout
+     * @since 1.0.12
+     */
+    public void setReplayTimeout(long replayTimeout) {
+        this.replayTimeout = replayTimeout;
     }
 
     protected boolean supportsPublishEventMethod() {
@@ -104,35 +371,168 @@ public class DeferredApplicationEventPublisher implements ApplicationEventPublis
 
     @Override
     public void publishEvent(ApplicationEvent event) {
-        if (shouldDefer) {
-            // before Spring 4.2
-            deferEvent(event);
+        if (deferring) {
+            synchronized (deferredEvents) {
+                // double-check, the deferred events may have been replayed
+                if (deferring) {
+                    // before Spring 4.2
+                    deferEvent(event);
+                    return;
+                }
+            }
+        }
+        publishEventNow(event);
+    }
+
+    /**
+     * Publish the event asynchronously if {@link #dispatcherExecutor} is present, or synchronously
+     *
+     * @param event the {@link ApplicationEvent} or the payload of {@link ApplicationEvent event}
+     */
+    private void publishEventNow(Object event) {
+        if (asyncEvents != null) {
+            publishEventAsync(event);
         } else {
             doPublishEvent(event);
         }
     }
 
-    private void doPublishEvent(ApplicationEvent event) {
-        delegate.publishEvent(event);
+    /**
+     * Publish all buffered asynchronous events in the caller thread in order, it's invoked automatically when the
+     * context is closed, otherwise the buffered events may be lost.
+     *
+     * @since 1.0.12
+     */
+    public void flush() {
+        if (asyncEvents == null) {
+            return;
+        }
+        dispatchLock.lock();
+        try {
+            while (dispatchEvents() > 0) {
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
     }
 
-    private void deferEvent(ApplicationEvent event) {
+    /**
+     * {@link #flush() Flush} the buffered asynchronous events, and then discard the deferred events those have not
+     * been replayed, the spill file will be deleted. It's invoked automatically when the context is closed or fails to
+     * refresh, the events can't be deferred since now.
+     *
+     * @since 1.0.12
+     */
+    public void close() {
         try {
-            deferredEvents.add(event);
-        } catch (Exception ignore) {
-            deferredEvents.add(event);
+            flush();
+        } finally {
+            synchronized (deferredEvents) {
+                long discardedEvents = deferredEvents.size();
+                if (discardedEvents > 0 && log.isWarnEnabled()) {
+                    log.warn(discardedEvents + " deferred events have been discarded, because they are not replayed " +
+                            "before the publisher is closed");
+                }
+                deferredEvents.close();
+            }
+        }
+    }
+
+    private void publishEventAsync(Object event) {
+        if (!asyncEvents.offer(event)) {
+            if (Thread.currentThread() == dispatcherThread) {
+                // the listener publishes the event while the buffer is full, blocking would be a deadlock,
+                // thus the event is dispatched after the buffered ones by the current dispatch
+                asyncEvents.drainTo(pendingEvents);
+                pendingEvents.add(event);
+                return;
+            }
+            switch (backpressurePolicy) {
+                case BLOCK:
+                    putEvent(event);
+                    break;
+                case DROP_OLDEST:
+                    while (!asyncEvents.offer(event)) {
+                        Object droppedEvent = asyncEvents.poll();
+                        if (droppedEvent != null && log.isWarnEnabled()) {
+                            log.warn("The event [" + droppedEvent + "] has been dropped, because the buffer is full");
+                        }
+                    }
+                    break;
+                default: // CALLER_RUNS
+                    publishEventInCaller(event);
+                    return;
+            }
+        }
+        scheduleDispatcher();
+    }
+
+    private void putEvent(Object event) {
+        try {
+            asyncEvents.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // publish synchronously rather than losing the event
+            publishEventInCaller(event);
         }
     }
 
     /**
-     * Current method will not be invoked before Spring 4.2
+     * Publish the event in the caller thread after the buffered events
      *
      * @param event the {@link ApplicationEvent} or the payload of {@link ApplicationEvent event}
      */
-    public void publishEvent(Object event) {
-        if (supportsEarlyApplicationEvents() && supportsPublishEventMethod()) {
+    private void publishEventInCaller(Object event) {
+        dispatchLock.lock();
+        try {
+            while (dispatchEvents() > 0) {
+            }
+            pendingEvents.add(event);
+            while (dispatchEvents() > 0) {
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void scheduleDispatcher() {
+        if (dispatching.compareAndSet(false, true)) {
+            try {
+                dispatcherExecutor.execute(dispatcher);
+            } catch (RejectedExecutionException e) {
+                // the executor may be shutdown, dispatch the pending events in the caller thread
+                try {
+                    flush();
+                } finally {
+                    dispatching.set(false);
+                }
+            }
+        }
+    }
+
+    private void doPublishEvent(Object event) {
+        if (event instanceof ApplicationEvent) {
+            delegate.publishEvent((ApplicationEvent) event);
+        } else {
             // invoke by reflection to resolve the compilation issue
             ReflectionUtils.invokeMethod(PUBLISH_EVENT_METHOD, delegate, event);
+        }
+    }
+
+    private void deferEvent(ApplicationEvent event) {
+        deferredEvents.add(event);
+    }
+
+    /**
+     * Current method will not be invoked before Spring 4.2
+     *
+     * @param event the {@link ApplicationEvent} or the payload of {@link ApplicationEvent event}
+     */
+    public void publishEvent(Object event) {
+        if (event instanceof ApplicationEvent) {
+            publishEvent((ApplicationEvent) event);
+        } else if (supportsEarlyApplicationEvents() && supportsPublishEventMethod()) {
+            publishEventNow(event);
         } else { // before Spring 4.2
             // DO NOTHING, just resolve the compilation issue in Spring 4.2 and above
         }
@@ -155,24 +555,432 @@ public class DeferredApplicationEventPublisher implements ApplicationEventPublis
         replayDeferredEvents();
     }
 
+    /**
+     * Replay the deferred events round by round, the events deferred during a round are replayed by the next one,
+     * until no event is deferred, and then the events are published directly.
+     */
+
     private void replayDeferredEvents() {
-        Iterator<ApplicationEvent> iterator = deferredEvents.iterator();
-        while (iterator.hasNext()) {
-            ApplicationEvent event = iterator.next();
-            doPublishEvent(event);
-            iterator.remove(); // remove if published
+        if (replayExecutor != null) {
+            replayDeferredEventsInParallel();
+        } else {
+            replayDeferredEventsSequentially();
+        }
+    }
+
+    /**
+     * Replay the deferred events in the caller thread, the first exception thrown by the listeners is rethrown after
+     * all events are replayed.
+     */
+    private void replayDeferredEventsSequentially() {
+        RuntimeException failure = null;
+        do {
+            ApplicationEvent event;
+            // the spilled events are streamed back in order
+            while ((event = deferredEvents.poll()) != null) {
+                try {
+                    doPublishEvent(event);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else if (log.isErrorEnabled()) {
+                        log.error("The deferred event [" + event + "] can't be replayed", e);
+                    }
+                }
+            }
+        } while (!stopDeferringIfDrained());
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Replay the deferred events by the partitions concurrently, and wait for the completion until the timeout. As the
+     * sequential replay, the first exception thrown by the listeners is rethrown, but the other partitions are still
+     * replayed. If timeout, the events are still deferred until the rest of rounds are replayed in background.
+     */
+    private void replayDeferredEventsInParallel() {
+
+        ReplayProgress progress = new ReplayProgress();
+
+        if (replayRound(progress)) {
+            replayNextRounds(progress);
+        }
+
+        if (!progress.await(replayTimeout)) {
+            if (log.isWarnEnabled()) {
+                log.warn("The replay of deferred events is not completed in " + replayTimeout +
+                        " ms, the rest of them will be replayed in background");
+            }
+        }
+
+        RuntimeException failure = progress.getFailure();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Dispatch the deferred events into the partitions
+     *
+     * @param progress {@link ReplayProgress}
+     * @return <code>true</code> if all events of the round have been replayed, thus the current thread must go on
+     * with the next rounds
+     */
+    private boolean replayRound(ReplayProgress progress) {
+        Map<Object, ReplayPartition> partitions = new HashMap<Object, ReplayPartition>();
+        // the round is not completed until all events are dispatched
+        progress.increment();
+        try {
+            ApplicationEvent event;
+            while ((event = deferredEvents.poll()) != null) {
+                Object partitionKey = eventPartitioner == null ? null : eventPartitioner.getPartitionKey(event);
+                ReplayPartition partition = partitions.get(partitionKey);
+                if (partition == null) {
+                    partition = new ReplayPartition(progress);
+                    partitions.put(partitionKey, partition);
+                }
+                progress.increment();
+                partition.add(event);
+            }
+        } catch (RuntimeException e) {
+            // the spilled events can't be read, they are still deferred
+            progress.decrement();
+            throw e;
+        }
+        return progress.decrement();
+    }
+
+    /**
+     * Replay the events deferred during the completed round, it's invoked by the thread completing the round
+     *
+     * @param progress {@link ReplayProgress}
+     */
+    private void replayNextRounds(ReplayProgress progress) {
+        while (!stopDeferringIfDrained()) {
+            if (!replayRound(progress)) {
+                // the round will be completed by the other thread
+                return;
+            }
+        }
+        progress.complete();
+    }
+
+    /**
+     * Stop deferring the events if no event is pending to be replayed
+     *
+     * @return <code>true</code> if stopped
+     */
+    private boolean stopDeferringIfDrained() {
+        synchronized (deferredEvents) {
+            if (deferredEvents.size() > 0) {
+                return false;
+            }
+            // the events will be published directly since now
+            deferring = false;
+            return true;
         }
     }
 
     private boolean supportsEarlyApplicationEvents() {
-        return context != null && findField(context.getClass(), EARLY_APPLICATION_EVENTS_FIELD_NAME) != null;
+        return contextCapabilities.supportsEarlyApplicationEvents;
     }
 
     private boolean isInitializedApplicationEventMulticaster() {
-        return context != null && findField(context.getClass(), APPLICATION_EVENT_MULTICASTER_FIELD_NAME) != null;
+        return contextCapabilities.initializedApplicationEventMulticaster;
+    }
+
+    /**
+     * Whether {@link AbstractApplicationContext#applicationEventMulticaster} has been initialized or not
+     */
+    private boolean isApplicationEventMulticasterReady() {
+        Field applicationEventMulticasterField = contextCapabilities.applicationEventMulticasterField;
+        return applicationEventMulticasterField != null && getField(applicationEventMulticasterField, context) != null;
+    }
+
+    /**
+     * Get the {@link ContextCapabilities} of the specified context type, the reflective detection is executed only
+     * once per type
+     *
+     * @param contextClass the type of {@link ConfigurableApplicationContext}
+     * @return non-null
+     * @since 1.0.12
+     */
+    static ContextCapabilities getContextCapabilities(Class<?> contextClass) {
+        ContextCapabilities capabilities = CONTEXT_CAPABILITIES_CACHE.get(contextClass);
+        if (capabilities == null) {
+            Field applicationEventMulticasterField = findField(contextClass, APPLICATION_EVENT_MULTICASTER_FIELD_NAME);
+            if (applicationEventMulticasterField != null) {
+                makeAccessible(applicationEventMulticasterField);
+            }
+            capabilities = new ContextCapabilities(
+                    findField(contextClass, EARLY_APPLICATION_EVENTS_FIELD_NAME) != null,
+                    applicationEventMulticasterField);
+            ContextCapabilities existedCapabilities = CONTEXT_CAPABILITIES_CACHE.putIfAbsent(contextClass, capabilities);
+            if (existedCapabilities != null) {
+                capabilities = existedCapabilities;
+            }
+        }
+        return capabilities;
     }
 
     private static Method detectPublishEventMethod() {
         return findMethod(ApplicationEventPublisher.class, PUBLISH_EVENT_OBJECT_METHOD_NAME, Object.class);
     }
+
+    /**
+     * The capabilities of {@link ConfigurableApplicationContext} about the event publishing
+     *
+     * @since 1.0.12
+     */
+    static class ContextCapabilities {
+
+        /**
+         * The capabilities if the publisher is not a {@link ConfigurableApplicationContext}
+         */
+        static final ContextCapabilities NONE = new ContextCapabilities(false, null);
+
+        /**
+         * Whether {@link AbstractApplicationContext#earlyApplicationEvents} is present or not
+         */
+        final boolean supportsEarlyApplicationEvents;
+
+        /**
+         * Whether {@link AbstractApplicationContext#applicationEventMulticaster} is present or not
+         */
+        final boolean initializedApplicationEventMulticaster;
+
+        /**
+         * The accessible {@link AbstractApplicationContext#applicationEventMulticaster} field, or <code>null</code>
+         * if absent
+         */
+        final Field applicationEventMulticasterField;
+
+        ContextCapabilities(boolean supportsEarlyApplicationEvents, Field applicationEventMulticasterField) {
+            this.supportsEarlyApplicationEvents = supportsEarlyApplicationEvents;
+            this.initializedApplicationEventMulticaster = applicationEventMulticasterField != null;
+            this.applicationEventMulticasterField = applicationEventMulticasterField;
+        }
+    }
+
+    /**
+     * The policy if the buffer of the asynchronous events is full
+     *
+     * @since 1.0.12
+     */
+    public enum BackpressurePolicy {
+
+        /**
+         * Block the publisher until the buffer is available
+         */
+        BLOCK,
+
+        /**
+         * Drop the oldest event in the buffer
+         */
+        DROP_OLDEST,
+
+        /**
+         * Publish the buffered events and then the event synchronously in the publisher thread
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Publish the buffered events in order, at most {@link #maxEventsPerDispatch} events
+     *
+     * @return the number of the published events
+     */
+    private int dispatchEvents() {
+        int count = 0;
+        dispatchLock.lock();
+        Thread previousDispatcherThread = dispatcherThread;
+        dispatcherThread = Thread.currentThread();
+        try {
+            if (pendingEvents.isEmpty()) {
+                asyncEvents.drainTo(pendingEvents, maxEventsPerDispatch);
+            }
+            Object event;
+            while (count < maxEventsPerDispatch && (event = pendingEvents.poll()) != null) {
+                count++;
+                try {
+                    doPublishEvent(event);
+                } catch (RuntimeException e) {
+                    if (log.isErrorEnabled()) {
+                        log.error("The event [" + event + "] can't be published", e);
+                    }
+                }
+            }
+        } finally {
+            dispatcherThread = previousDispatcherThread;
+            dispatchLock.unlock();
+        }
+        return count;
+    }
+
+    /**
+     * The progress of the parallel replay
+     */
+    private static class ReplayProgress {
+
+        private final AtomicLong pendingEvents = new AtomicLong();
+
+        /**
+         * The first exception thrown by the listeners
+         */
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+        private boolean completed;
+
+        void increment() {
+            pendingEvents.incrementAndGet();
+        }
+
+        /**
+         * @return <code>true</code> if all events of the current round have been replayed
+         */
+        boolean decrement() {
+            return pendingEvents.decrementAndGet() == 0;
+        }
+
+        /**
+         * All rounds have been replayed
+         */
+        synchronized void complete() {
+            completed = true;
+            notifyAll();
+        }
+
+        /**
+         * @param e the exception thrown by the listeners
+         * @return <code>true</code> if it's the first one
+         */
+        boolean fail(RuntimeException e) {
+            return failure.compareAndSet(null, e);
+        }
+
+        RuntimeException getFailure() {
+            return failure.get();
+        }
+
+        /**
+         * @param timeout the timeout in milliseconds, non-positive means no timeout
+         * @return <code>true</code> if all rounds are replayed
+         */
+        synchronized boolean await(long timeout) {
+            long deadline = System.currentTimeMillis() + timeout;
+            boolean interrupted = false;
+            try {
+                while (!completed) {
+                    long waitTime = timeout > 0 ? deadline - System.currentTimeMillis() : 0;
+                    if (timeout > 0 && waitTime <= 0) {
+                        return false;
+                    }
+                    try {
+                        wait(waitTime);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                return true;
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * The partition of the deferred events, at most one task of the partition runs at the same time to keep the order
+     */
+    private class ReplayPartition implements Runnable {
+
+        private final Queue<ApplicationEvent> events = new ConcurrentLinkedQueue<ApplicationEvent>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private final ReplayProgress progress;
+
+        ReplayPartition(ReplayProgress progress) {
+            this.progress = progress;
+        }
+
+        void add(ApplicationEvent event) {
+            events.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    replayExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // the executor may be saturated or shutdown, replay in the caller thread
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean roundReplayed = false;
+            try {
+                ApplicationEvent event;
+                while ((event = events.poll()) != null) {
+                    try {
+                        doPublishEvent(event);
+                    } catch (RuntimeException e) {
+                        // the first one will be rethrown by the replaying thread
+                        if (!progress.fail(e) && log.isErrorEnabled()) {
+                            log.error("The deferred event [" + event + "] can't be replayed", e);
+                        }
+                    } finally {
+                        roundReplayed = progress.decrement();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (roundReplayed) {
+                // the last event of the round
+                replayNextRounds(progress);
+            } else if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * The dispatcher publishes at most {@link #maxEventsPerDispatch} buffered events, and then reschedules itself if
+     * more events are pending, thus the threads of {@link Executor} are shared fairly.
+     */
+    private class Dispatcher implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                dispatchEvents();
+            } finally {
+                dispatching.set(false);
+            }
+            if (!asyncEvents.isEmpty() || !pendingEvents.isEmpty()) {
+                scheduleDispatcher();
+            }
+        }
+    }
+
+    /**
+     * {@link #close() Close} the publisher when the context is closed
+     */
+    private class ContextClosedListener implements ApplicationListener<ContextClosedEvent> {
+
+        @Override
+        public void onApplicationEvent(ContextClosedEvent event) {
+            if (event.getApplicationContext().equals(delegate)) {
+                close();
+            }
+        }
+    }
 }
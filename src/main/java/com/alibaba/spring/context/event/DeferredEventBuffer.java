@@ -0,0 +1,489 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.event;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.Assert.notNull;
+import static org.springframework.util.Assert.state;
+import static org.springframework.util.ClassUtils.forName;
+import static org.springframework.util.ReflectionUtils.findField;
+import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.getField;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
+
+/**
+ * The buffer of the deferred {@link ApplicationEvent events}, at most {@link #setMaxInMemoryEvents(int) the max
+ * number of events} are kept in memory, the overflowed events are serialized into a local spill file that is read
+ * back by the memory-mapped windows, thus the events are polled in order without loading all of them onto the heap.
+ * <p>
+ * The spilling is enabled only if both {@link #setSerializer(Serializer) Serializer} and
+ * {@link #setDeserializer(Deserializer) Deserializer} are set, otherwise all events are kept in memory. There is no
+ * default, because {@link java.util.EventObject#source} is transient, the events serialized by
+ * {@link DefaultSerializer Java Serialization} lose their sources unless they restore them by themselves. The event
+ * that can't be serialized is rejected without any change of the buffer.
+ * <p>
+ * If {@link EventCoalescingPolicy} is {@link #setCoalescingPolicy(EventCoalescingPolicy) set}, the events with the same
+ * type and coalescing key are coalesced, only the latest one is polled.
+ * <p>
+ * The buffer must be {@link #close() closed} once it's no longer used, the spill file is deleted and its
+ * memory-mapped windows are unmapped.
+ *
+ * @see DeferredApplicationEventPublisher
+ * @since 1.0.12
+ */
+class DeferredEventBuffer {
+
+    /**
+     * The default size of the memory-mapped window of the spill file
+     */
+    static final int DEFAULT_MAPPED_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The in-memory events in order, the coalesced event is re-inserted at the tail
+     */
+    private final Map<Object, ApplicationEvent> events = new LinkedHashMap<Object, ApplicationEvent>();
+
+    /**
+     * The sequences of the latest spilled events by their coalescing keys
+     */
+    private final Map<CoalescingKey, Long> spilledSequences = new HashMap<CoalescingKey, Long>();
+
+    private int maxInMemoryEvents = Integer.MAX_VALUE;
+
+    /**
+     * The {@link Serializer} of the spilled events, the spilling is disabled if <code>null</code>
+     */
+    private Serializer<Object> serializer;
+
+    /**
+     * The {@link Deserializer} of the spilled events, the spilling is disabled if <code>null</code>
+     */
+    private Deserializer<Object> deserializer;
+
+    /**
+     * The directory of the spill file, the default temporary-file directory will be used if <code>null</code>
+     */
+    private File spillDirectory;
+
+    private EventCoalescingPolicy coalescingPolicy;
+
+    /**
+     * The current spill file, or <code>null</code> if no event is spilled
+     */
+    private SpillFile spillFile;
+
+    private boolean closed;
+
+    public synchronized void setMaxInMemoryEvents(int maxInMemoryEvents) {
+        isTrue(maxInMemoryEvents > 0, "The max number of in-memory events must be positive");
+        this.maxInMemoryEvents = maxInMemoryEvents;
+    }
+
+    public synchronized void setSerializer(Serializer<Object> serializer) {
+        notNull(serializer, "The Serializer argument must not be null");
+        this.serializer = serializer;
+    }
+
+    public synchronized void setDeserializer(Deserializer<Object> deserializer) {
+        notNull(deserializer, "The Deserializer argument must not be null");
+        this.deserializer = deserializer;
+    }
+
+    public synchronized void setSpillDirectory(File spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    public synchronized void setCoalescingPolicy(EventCoalescingPolicy coalescingPolicy) {
+        this.coalescingPolicy = coalescingPolicy;
+    }
+
+    /**
+     * Add the event into the tail of buffer
+     *
+     * @param event {@link ApplicationEvent}
+     * @throws SerializationFailedException if the event should be spilled but can't be serialized
+     */
+    public synchronized void add(ApplicationEvent event) throws SerializationFailedException {
+        state(!closed, "The buffer has been closed");
+        CoalescingKey coalescingKey = getCoalescingKey(event);
+        // the previous event in memory is superseded and its slot is released
+        int inMemoryEvents = coalescingKey != null && events.containsKey(coalescingKey) ? events.size() - 1 : events.size();
+        // once spilled, the events must be appended into the spill file until it's drained to keep the order
+        if (spillFile == null && (inMemoryEvents < maxInMemoryEvents || !isSpillingEnabled())) {
+            if (coalescingKey != null) {
+                events.remove(coalescingKey);
+            }
+            // the event without coalescing key is never coalesced
+            events.put(coalescingKey != null ? coalescingKey : new Object(), event);
+            return;
+        }
+        // fail fast before any change
+        byte[] bytes = serialize(event);
+        try {
+            if (spillFile == null) {
+                spillFile = new SpillFile(File.createTempFile("deferred-events-", ".spill", spillDirectory));
+            }
+            long sequence = spillFile.write(bytes);
+            if (coalescingKey != null) {
+                events.remove(coalescingKey);
+                // the previous spilled event is superseded
+                spilledSequences.put(coalescingKey, sequence);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The event [" + event + "] can't be spilled", e);
+        }
+    }
+
+    /**
+     * Close the buffer, the events are discarded and the spill file is deleted, the events can't be added since now
+     */
+    public synchronized void close() {
+        closed = true;
+        events.clear();
+        spilledSequences.clear();
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+    }
+
+    private boolean isSpillingEnabled() {
+        return serializer != null && deserializer != null;
+    }
+
+    /**
+     * Retrieve and remove the head of buffer
+     *
+     * @return <code>null</code> if the buffer is empty
+     */
+    public synchronized ApplicationEvent poll() {
+        ApplicationEvent event = pollInMemory();
+        while (event == null && spillFile != null) {
+            try {
+                byte[] bytes = spillFile.read();
+                if (bytes != null) {
+                    event = deserialize(bytes);
+                    if (isSuperseded(event, spillFile.getReadCount())) {
+                        event = null;
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("The spilled event can't be read from the file : " + spillFile.file, e);
+            } finally {
+                if (spillFile.isDrained()) {
+                    spillFile.close();
+                    spillFile = null;
+                }
+            }
+        }
+        return event;
+    }
+
+    private ApplicationEvent pollInMemory() {
+        Iterator<ApplicationEvent> iterator = events.values().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        ApplicationEvent event = iterator.next();
+        iterator.remove();
+        return event;
+    }
+
+    private boolean isSuperseded(ApplicationEvent spilledEvent, long sequence) {
+        CoalescingKey coalescingKey = getCoalescingKey(spilledEvent);
+        if (coalescingKey == null) {
+            return false;
+        }
+        Long latestSequence = spilledSequences.get(coalescingKey);
+        if (latestSequence != null && latestSequence != sequence) {
+            return true;
+        }
+        spilledSequences.remove(coalescingKey);
+        return false;
+    }
+
+    private CoalescingKey getCoalescingKey(ApplicationEvent event) {
+        Object key = coalescingPolicy == null ? null : coalescingPolicy.getCoalescingKey(event);
+        return key == null ? null : new CoalescingKey(event.getClass(), key);
+    }
+
+    /**
+     * @return the number of events in the buffer, including the spilled events those may be superseded
+     */
+    public synchronized long size() {
+        return events.size() + (spillFile == null ? 0 : spillFile.getPendingCount());
+    }
+
+    /**
+     * @return the number of events spilled into the file and not polled yet
+     */
+    synchronized long getSpilledSize() {
+        return spillFile == null ? 0 : spillFile.getPendingCount();
+    }
+
+    private byte[] serialize(ApplicationEvent event) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try {
+            serializer.serialize(event, outputStream);
+        } catch (IOException e) {
+            throw new SerializationFailedException("The event [" + event + "] can't be serialized", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private ApplicationEvent deserialize(byte[] bytes) {
+        try {
+            return (ApplicationEvent) deserializer.deserialize(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new SerializationFailedException("The spilled event can't be deserialized", e);
+        }
+    }
+
+    /**
+     * The key of the coalesced events : the event type and the key from {@link EventCoalescingPolicy}
+     */
+    private static class CoalescingKey {
+
+        private final Class<?> eventType;
+
+        private final Object key;
+
+        CoalescingKey(Class<?> eventType, Object key) {
+            this.eventType = eventType;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey that = (CoalescingKey) o;
+            return eventType.equals(that.eventType) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * eventType.hashCode() + key.hashCode();
+        }
+    }
+
+    /**
+     * The spill file consists of the records that are the length of bytes followed by the serialized event, the
+     * records are appended by the buffered stream and read by the memory-mapped windows.
+     */
+    private static class SpillFile {
+
+        private static final Log logger = LogFactory.getLog(SpillFile.class);
+
+        /**
+         * sun.misc.Unsafe#invokeCleaner(ByteBuffer) since Java 9
+         */
+        private static final Method INVOKE_CLEANER_METHOD = findInvokeCleanerMethod();
+
+        /**
+         * The instance of sun.misc.Unsafe since Java 9
+         */
+        private static final Object UNSAFE = INVOKE_CLEANER_METHOD == null ? null : findUnsafe();
+
+        private final File file;
+
+        private final DataOutputStream outputStream;
+
+        private final RandomAccessFile randomAccessFile;
+
+        private final FileChannel channel;
+
+        /**
+         * The current memory-mapped window, starts from the read position when it was mapped
+         */
+        private MappedByteBuffer window;
+
+        private long readPosition;
+
+        private long writtenCount;
+
+        private long readCount;
+
+        SpillFile(File file) throws IOException {
+            this.file = file;
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            this.randomAccessFile = new RandomAccessFile(file, "r");
+            this.channel = randomAccessFile.getChannel();
+        }
+
+        /**
+         * @return the sequence of the written record, starts from 1
+         */
+        long write(byte[] bytes) throws IOException {
+            outputStream.writeInt(bytes.length);
+            outputStream.write(bytes);
+            return ++writtenCount;
+        }
+
+        byte[] read() throws IOException {
+            if (isDrained()) {
+                return null;
+            }
+            ensureMapped(4);
+            int length = window.getInt();
+            readPosition += 4;
+            ensureMapped(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            readPosition += length;
+            readCount++;
+            return bytes;
+        }
+
+        /**
+         * Map the window from the read position if the remaining of current window is not enough
+         *
+         * @param length the length of bytes to be read
+         * @throws IOException
+         */
+        private void ensureMapped(int length) throws IOException {
+            if (window != null && window.remaining() >= length) {
+                return;
+            }
+            // make the written records visible
+            outputStream.flush();
+            unmap(window);
+            window = null;
+            long size = Math.min(Math.max(DEFAULT_MAPPED_WINDOW_SIZE, length), channel.size() - readPosition);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, readPosition, size);
+        }
+
+        boolean isDrained() {
+            return readCount >= writtenCount;
+        }
+
+        /**
+         * @return the sequence of the last read record
+         */
+        long getReadCount() {
+            return readCount;
+        }
+
+        long getPendingCount() {
+            return writtenCount - readCount;
+        }
+
+        void close() {
+            unmap(window);
+            window = null;
+            closeQuietly(outputStream);
+            closeQuietly(randomAccessFile);
+            if (!file.delete() && file.exists()) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The spill file [" + file + "] can't be deleted, it will be deleted on exit");
+                }
+                file.deleteOnExit();
+            }
+        }
+
+        /**
+         * Unmap the memory-mapped window eagerly rather than waiting for the GC, otherwise the mapping still holds
+         * the spill file, which can't be deleted on some platforms. The window must not be accessed since now.
+         *
+         * @param window the memory-mapped window, may be <code>null</code>
+         */
+        private static void unmap(MappedByteBuffer window) {
+            if (window == null) {
+                return;
+            }
+            try {
+                if (UNSAFE != null) {
+                    invokeMethod(INVOKE_CLEANER_METHOD, UNSAFE, window);
+                } else {
+                    // before Java 9 : ((sun.nio.ch.DirectBuffer) window).cleaner().clean()
+                    Method cleanerMethod = findMethod(window.getClass(), "cleaner");
+                    if (cleanerMethod != null) {
+                        makeAccessible(cleanerMethod);
+                        Object cleaner = invokeMethod(cleanerMethod, window);
+                        if (cleaner != null) {
+                            Method cleanMethod = findMethod(cleaner.getClass(), "clean");
+                            makeAccessible(cleanMethod);
+                            invokeMethod(cleanMethod, cleaner);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // the window will be unmapped by the GC
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The memory-mapped window can't be unmapped", e);
+                }
+            }
+        }
+
+        private static Method findInvokeCleanerMethod() {
+            try {
+                return findMethod(forName("sun.misc.Unsafe", null), "invokeCleaner", ByteBuffer.class);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+
+        private static Object findUnsafe() {
+            try {
+                Field unsafeField = findField(forName("sun.misc.Unsafe", null), "theUnsafe");
+                makeAccessible(unsafeField);
+                return getField(unsafeField, null);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+
+        private static void closeQuietly(Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * The policy to coalesce the deferred {@link ApplicationEvent events}, the events with the same type and the same
+ * {@link #getCoalescingKey(ApplicationEvent) coalescing key} are coalesced, only the latest one survives until they are
+ * replayed.
+ *
+ * @see DeferredApplicationEventPublisher#setEventCoalescingPolicy(EventCoalescingPolicy)
+ * @since 1.0.12
+ */
+public interface EventCoalescingPolicy {
+
+    /**
+     * Get the coalescing key of the specified event, the key must be stable across the serialization if the events
+     * are spilled
+     *
+     * @param event the deferred {@link ApplicationEvent event}
+     * @return the coalescing key, or <code>null</code> if the event should not be coalesced
+     */
+    Object getCoalescingKey(ApplicationEvent event);
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * The partitioner of the deferred {@link ApplicationEvent events} for the parallel replay, the events in the same
+ * partition are replayed in order, and the different partitions are replayed concurrently.
+ *
+ * @see DeferredApplicationEventPublisher#setReplayExecutor(java.util.concurrent.Executor)
+ * @since 1.0.12
+ */
+public interface EventPartitioner {
+
+    /**
+     * Get the partition key of the specified event
+     *
+     * @param event the deferred {@link ApplicationEvent event}
+     * @return the partition key, the events are replayed in the default partition if <code>null</code>
+     */
+    Object getPartitionKey(ApplicationEvent event);
+
+}
@@ -1,9 +1,12 @@
 package com.alibaba.spring.util;
 
 import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.AbstractEnvironment;
+import org.springframework.core.env.AbstractPropertyResolver;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.PropertyResolver;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
@@ -11,8 +14,13 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -22,15 +30,19 @@ import java.util.Set;
 
 import static java.lang.String.valueOf;
 import static java.util.Arrays.asList;
+import static org.springframework.beans.BeanUtils.instantiateClass;
 import static org.springframework.core.annotation.AnnotationAttributes.fromMap;
 import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
-import static org.springframework.core.annotation.AnnotationUtils.getDefaultValue;
+import static org.springframework.util.ClassUtils.getConstructorIfAvailable;
 import static org.springframework.util.ClassUtils.resolveClassName;
 import static org.springframework.util.CollectionUtils.arrayToList;
 import static org.springframework.util.CollectionUtils.isEmpty;
 import static org.springframework.util.ObjectUtils.nullSafeEquals;
+import static org.springframework.util.ReflectionUtils.findField;
 import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.getField;
 import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
 import static org.springframework.util.StringUtils.trimWhitespace;
 
 /**
@@ -48,6 +60,64 @@ public abstract class AnnotationUtils {
      */
     public static final String ANNOTATED_ELEMENT_UTILS_CLASS_NAME = "org.springframework.core.annotation.AnnotatedElementUtils";
 
+    /**
+     * The cache of the getMergedAnnotation method of AnnotatedElementUtils per {@link ClassLoader}, the value is
+     * <code>null</code> if absent
+     *
+     * @since 1.0.12
+     */
+    private static final ConcurrentReferenceHashMap<ClassLoader, Method> MERGED_ANNOTATION_METHODS_CACHE =
+            new ConcurrentReferenceHashMap<ClassLoader, Method>();
+
+    /**
+     * The placeholderPrefix field of {@link AbstractPropertyResolver}
+     *
+     * @since 1.0.12
+     */
+    private static final Field PLACEHOLDER_PREFIX_FIELD = findAccessibleField(AbstractPropertyResolver.class, "placeholderPrefix");
+
+    /**
+     * The propertyResolver field of {@link AbstractEnvironment}
+     *
+     * @since 1.0.12
+     */
+    private static final Field PROPERTY_RESOLVER_FIELD = findAccessibleField(AbstractEnvironment.class, "propertyResolver");
+
+    /**
+     * The cache of whether the {@link PropertyResolver#resolvePlaceholders(String)} of the resolver class is not
+     * overridden, so that its placeholder prefix can be trusted
+     *
+     * @since 1.0.12
+     */
+    private static final ConcurrentReferenceHashMap<Class<?>, Boolean> STANDARD_RESOLVER_CLASSES_CACHE =
+            new ConcurrentReferenceHashMap<Class<?>, Boolean>();
+
+    /**
+     * The cache of the default values of the annotation attributes
+     *
+     * @since 1.0.12
+     */
+    private static final ConcurrentReferenceHashMap<Class<? extends Annotation>, Map<String, Object>> ANNOTATION_DEFAULT_VALUES_CACHE =
+            new ConcurrentReferenceHashMap<Class<? extends Annotation>, Map<String, Object>>();
+
+    /**
+     * The cache of the raw {@link AnnotationAttributes} before resolving the placeholders, the value is
+     * <code>null</code> if the annotation is absent
+     *
+     * @since 1.0.12
+     */
+    private static final ConcurrentReferenceHashMap<AnnotationAttributesCacheKey, AnnotationAttributes> ANNOTATION_ATTRIBUTES_CACHE =
+            new ConcurrentReferenceHashMap<AnnotationAttributesCacheKey, AnnotationAttributes>();
+
+    /**
+     * The copy constructor of {@link AnnotationAttributes} that keeps the annotation type, <code>null</code> if
+     * Spring Framework is below 4.2
+     *
+     * @since 1.0.12
+     */
+    private static final Constructor<AnnotationAttributes> ANNOTATION_ATTRIBUTES_COPY_CONSTRUCTOR =
+            getConstructorIfAvailable(AnnotationAttributes.class, AnnotationAttributes.class);
+
     /**
      * Is specified {@link Annotation} present on {@link Method}'s declaring class or parameters or itself.
      *
@@ -215,20 +285,26 @@ public abstract class AnnotationUtils {
                 continue;
             }
 
-            if (attributeValue instanceof String) {
-                attributeValue = resolvePlaceholders(valueOf(attributeValue), propertyResolver);
-            } else if (attributeValue instanceof String[]) {
-                String[] values = (String[]) attributeValue;
-                for (int i = 0; i < values.length; i++) {
-                    values[i] = resolvePlaceholders(values[i], propertyResolver);
-                }
-                attributeValue = values;
-            }
-            actualAttributes.put(attributeName, attributeValue);
+            actualAttributes.put(attributeName, resolveAttributeValue(attributeValue, propertyResolver));
         }
         return actualAttributes;
     }
 
+    private static Object resolveAttributeValue(Object attributeValue, PropertyResolver propertyResolver) {
+        if (attributeValue instanceof String) {
+            attributeValue = resolvePlaceholders(valueOf(attributeValue), propertyResolver);
+        } else if (attributeValue instanceof String[]) {
+            String[] values = (String[]) attributeValue;
+            // resolve into a new array, the original one may be shared
+            String[] resolvedValues = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                resolvedValues[i] = resolvePlaceholders(values[i], propertyResolver);
+            }
+            attributeValue = resolvedValues;
+        }
+        return attributeValue;
+    }
+
     /**
      * @param annotation             specified {@link Annotation}
      * @param propertyResolver       {@link PropertyResolver} instance, e.g {@link Environment}
@@ -253,35 +329,128 @@ public abstract class AnnotationUtils {
 
         Map<String, Object> annotationAttributes = org.springframework.core.annotation.AnnotationUtils.getAnnotationAttributes(annotation, classValuesAsString, nestedAnnotationsAsMap);
 
-        String[] actualIgnoreAttributeNames = ignoreAttributeNames;
+        if (!ignoreDefaultValue || isEmpty(annotationAttributes)) {
+            return getAttributes(annotationAttributes, propertyResolver, ignoreAttributeNames);
+        }
 
-        if (ignoreDefaultValue && !isEmpty(annotationAttributes)) {
+        Map<String, Object> defaultValues = getDefaultValues(annotation.annotationType());
 
-            List<String> attributeNamesToIgnore = new LinkedList<String>(asList(ignoreAttributeNames));
+        Set<String> ignoreAttributeNamesSet = ignoreAttributeNames.length == 0 ? Collections.<String>emptySet() :
+                new HashSet<String>(asList(ignoreAttributeNames));
 
-            for (Map.Entry<String, Object> annotationAttribute : annotationAttributes.entrySet()) {
-                String attributeName = annotationAttribute.getKey();
-                Object attributeValue = annotationAttribute.getValue();
-                if (nullSafeEquals(attributeValue, getDefaultValue(annotation, attributeName))) {
-                    attributeNamesToIgnore.add(attributeName);
-                }
+        Map<String, Object> actualAttributes = new LinkedHashMap<String, Object>();
+
+        // filters the ignored attributes and the default values in one pass
+        for (Map.Entry<String, Object> annotationAttribute : annotationAttributes.entrySet()) {
+            String attributeName = annotationAttribute.getKey();
+            Object attributeValue = annotationAttribute.getValue();
+            if (ignoreAttributeNamesSet.contains(attributeName)
+                    || nullSafeEquals(attributeValue, defaultValues.get(attributeName))) {
+                continue;
             }
-            // extends the ignored list
-            actualIgnoreAttributeNames = attributeNamesToIgnore.toArray(new String[attributeNamesToIgnore.size()]);
+            actualAttributes.put(attributeName, resolveAttributeValue(attributeValue, propertyResolver));
         }
 
-        return getAttributes(annotationAttributes, propertyResolver, actualIgnoreAttributeNames);
+        return actualAttributes;
+    }
+
+    /**
+     * Get the default values of the attributes declared by the specified annotation type, the result is computed
+     * once per annotation type
+     *
+     * @param annotationType the type of {@link Annotation annotation}
+     * @return non-null read-only {@link Map}, the key is the attribute name, the value is the default value or
+     * <code>null</code> if absent
+     * @since 1.0.12
+     */
+    static Map<String, Object> getDefaultValues(Class<? extends Annotation> annotationType) {
+        Map<String, Object> defaultValues = ANNOTATION_DEFAULT_VALUES_CACHE.get(annotationType);
+        if (defaultValues == null) {
+            defaultValues = resolveDefaultValues(annotationType);
+            ANNOTATION_DEFAULT_VALUES_CACHE.put(annotationType, defaultValues);
+        }
+        return defaultValues;
+    }
+
+    private static Map<String, Object> resolveDefaultValues(Class<? extends Annotation> annotationType) {
+        Method[] attributeMethods = annotationType.getDeclaredMethods();
+        Map<String, Object> defaultValues = new HashMap<String, Object>(attributeMethods.length * 2);
+        for (Method attributeMethod : attributeMethods) {
+            if (attributeMethod.getParameterTypes().length == 0 && attributeMethod.getReturnType() != void.class) {
+                defaultValues.put(attributeMethod.getName(), attributeMethod.getDefaultValue());
+            }
+        }
+        return Collections.unmodifiableMap(defaultValues);
     }
 
     private static String resolvePlaceholders(String attributeValue, PropertyResolver propertyResolver) {
         String resolvedValue = attributeValue;
         if (propertyResolver != null) {
-            resolvedValue = propertyResolver.resolvePlaceholders(resolvedValue);
-            resolvedValue = trimWhitespace(resolvedValue);
+            if (!isLiteral(resolvedValue, propertyResolver)) {
+                resolvedValue = propertyResolver.resolvePlaceholders(resolvedValue);
+            }
+            if (hasSurroundingWhitespace(resolvedValue)) {
+                resolvedValue = trimWhitespace(resolvedValue);
+            }
         }
         return resolvedValue;
     }
 
+    /**
+     * Is the specified value a literal without any placeholder, it's decided only if the placeholder prefix of resolver
+     * is known, otherwise the value may be a placeholder.
+     *
+     * @param value            the attribute value
+     * @param propertyResolver {@link PropertyResolver}
+     * @return <code>true</code> if the value doesn't contain the placeholder prefix of resolver
+     */
+    private static boolean isLiteral(String value, PropertyResolver propertyResolver) {
+        String placeholderPrefix = getPlaceholderPrefix(propertyResolver);
+        return placeholderPrefix != null && !value.contains(placeholderPrefix);
+    }
+
+    private static String getPlaceholderPrefix(PropertyResolver propertyResolver) {
+        if (!isStandardResolver(propertyResolver.getClass())) {
+            return null;
+        }
+        Object resolver = propertyResolver;
+        if (resolver instanceof AbstractEnvironment) { // the environment delegates to its resolver
+            resolver = PROPERTY_RESOLVER_FIELD == null ? null : getField(PROPERTY_RESOLVER_FIELD, resolver);
+            if (resolver == null || !isStandardResolver(resolver.getClass())) {
+                return null;
+            }
+        }
+        if (resolver instanceof AbstractPropertyResolver && PLACEHOLDER_PREFIX_FIELD != null) {
+            return (String) getField(PLACEHOLDER_PREFIX_FIELD, resolver);
+        }
+        return null;
+    }
+
+    private static boolean isStandardResolver(Class<?> resolverClass) {
+        Boolean standard = STANDARD_RESOLVER_CLASSES_CACHE.get(resolverClass);
+        if (standard == null) {
+            Method method = findMethod(resolverClass, "resolvePlaceholders", String.class);
+            Class<?> declaringClass = method == null ? null : method.getDeclaringClass();
+            standard = AbstractEnvironment.class.equals(declaringClass) || AbstractPropertyResolver.class.equals(declaringClass);
+            STANDARD_RESOLVER_CLASSES_CACHE.put(resolverClass, standard);
+        }
+        return standard;
+    }
+
+    private static Field findAccessibleField(Class<?> type, String name) {
+        Field field = findField(type, name);
+        if (field != null) {
+            makeAccessible(field);
+        }
+        return field;
+    }
+
+    private static boolean hasSurroundingWhitespace(String value) {
+        int length = value.length();
+        return length > 0 && (Character.isWhitespace(value.charAt(0))
+                || Character.isWhitespace(value.charAt(length - 1)));
+    }
+
     /**
      * Get the attribute value
      *
@@ -533,6 +702,91 @@ public abstract class AnnotationUtils {
         return attributes;
     }
 
+    /**
+     * Get the {@link AnnotationAttributes} as same as
+     * {@link #getAnnotationAttributes(AnnotatedElement, Class, PropertyResolver, boolean, boolean, boolean, boolean, String...)},
+     * but the raw attributes before resolving the placeholders are cached by the annotated element, the annotation type
+     * and the flags, thus the placeholders are only resolved by the specified {@link PropertyResolver} on the
+     * subsequent calls.
+     *
+     * @param annotatedElement       {@link AnnotatedElement the annotated element}
+     * @param annotationType         the {@link Class tyoe} pf {@link Annotation annotation}
+     * @param propertyResolver       {@link PropertyResolver} instance, e.g {@link Environment}
+     * @param classValuesAsString    whether to turn Class references into Strings (for
+     *                               compatibility with {@link org.springframework.core.type.AnnotationMetadata} or to
+     *                               preserve them as Class references
+     * @param nestedAnnotationsAsMap whether to turn nested Annotation instances into
+     *                               {@link AnnotationAttributes} maps (for compatibility with
+     *                               {@link org.springframework.core.type.AnnotationMetadata} or to preserve them as
+     *                               Annotation instances
+     * @param ignoreDefaultValue     whether ignore default value or not
+     * @param tryMergedAnnotation    whether try merged annotation or not
+     * @param ignoreAttributeNames   the attribute names of annotation should be ignored
+     * @return if <code>annotatedElement</code> can't be found in <code>annotatedElement</code>, return <code>null</code>
+     * @see #clearCache()
+     * @since 1.0.12
+     */
+    public static AnnotationAttributes getCachedAnnotationAttributes(AnnotatedElement annotatedElement,
+                                                                     Class<? extends Annotation> annotationType,
+                                                                     PropertyResolver propertyResolver,
+                                                                     boolean classValuesAsString,
+                                                                     boolean nestedAnnotationsAsMap,
+                                                                     boolean ignoreDefaultValue,
+                                                                     boolean tryMergedAnnotation,
+                                                                     String... ignoreAttributeNames) {
+
+        AnnotationAttributesCacheKey cacheKey = new AnnotationAttributesCacheKey(annotatedElement, annotationType,
+                classValuesAsString, nestedAnnotationsAsMap, ignoreDefaultValue, tryMergedAnnotation, ignoreAttributeNames);
+
+        AnnotationAttributes rawAttributes = ANNOTATION_ATTRIBUTES_CACHE.get(cacheKey);
+
+        if (rawAttributes == null && !ANNOTATION_ATTRIBUTES_CACHE.containsKey(cacheKey)) {
+            // the raw attributes without resolving placeholders, the null value is cached as well if absent
+            rawAttributes = getAnnotationAttributes(annotatedElement, annotationType, null, classValuesAsString,
+                    nestedAnnotationsAsMap, ignoreDefaultValue, tryMergedAnnotation, ignoreAttributeNames);
+            ANNOTATION_ATTRIBUTES_CACHE.put(cacheKey, rawAttributes);
+        }
+
+        // the nested values are copied, the cached ones must not be shared with the callers
+        return rawAttributes == null ? null : copyAttributes(fromMap(getAttributes(rawAttributes, propertyResolver)));
+    }
+
+    private static AnnotationAttributes copyAttributes(AnnotationAttributes attributes) {
+        AnnotationAttributes copiedAttributes = ANNOTATION_ATTRIBUTES_COPY_CONSTRUCTOR == null ?
+                new AnnotationAttributes(attributes) : instantiateClass(ANNOTATION_ATTRIBUTES_COPY_CONSTRUCTOR, attributes);
+        for (Map.Entry<String, Object> entry : copiedAttributes.entrySet()) {
+            entry.setValue(copyAttributeValue(entry.getValue()));
+        }
+        return copiedAttributes;
+    }
+
+    private static Object copyAttributeValue(Object attributeValue) {
+        if (attributeValue instanceof AnnotationAttributes) {
+            return copyAttributes((AnnotationAttributes) attributeValue);
+        } else if (attributeValue instanceof Object[]) {
+            Object[] values = ((Object[]) attributeValue).clone();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = copyAttributeValue(values[i]);
+            }
+            return values;
+        } else if (attributeValue != null && attributeValue.getClass().isArray()) { // primitive array
+            int length = Array.getLength(attributeValue);
+            Object values = Array.newInstance(attributeValue.getClass().getComponentType(), length);
+            System.arraycopy(attributeValue, 0, values, 0, length);
+            return values;
+        }
+        return attributeValue;
+    }
+
+    /**
+     * Clear the cache of {@link #getCachedAnnotationAttributes(AnnotatedElement, Class, PropertyResolver, boolean, boolean, boolean, boolean, String...)}
+     *
+     * @since 1.0.12
+     */
+    public static void clearCache() {
+        ANNOTATION_ATTRIBUTES_CACHE.clear();
+    }
+
     /**
      * Try to get the merged {@link Annotation annotation}
      *
@@ -568,20 +822,45 @@ public abstract class AnnotationUtils {
 
         Annotation mergedAnnotation = null;
 
-        ClassLoader classLoader = annotationType.getClassLoader();
+        Method getMergedAnnotationMethod = getMergedAnnotationMethod(annotationType.getClassLoader());
+
+        if (getMergedAnnotationMethod != null) {
+            mergedAnnotation = (Annotation) invokeMethod(getMergedAnnotationMethod, null,
+                    annotatedElement, annotationType, classValuesAsString, nestedAnnotationsAsMap);
+        }
 
+        return mergedAnnotation;
+    }
+
+    /**
+     * Get the getMergedAnnotation method of AnnotatedElementUtils that is resolved once per {@link ClassLoader}
+     *
+     * @param classLoader {@link ClassLoader}
+     * @return If current version of Spring Framework is below 4.2, return <code>null</code>
+     * @since 1.0.12
+     */
+    private static Method getMergedAnnotationMethod(ClassLoader classLoader) {
+        Method getMergedAnnotationMethod = MERGED_ANNOTATION_METHODS_CACHE.get(classLoader);
+        if (getMergedAnnotationMethod == null && !MERGED_ANNOTATION_METHODS_CACHE.containsKey(classLoader)) {
+            getMergedAnnotationMethod = resolveGetMergedAnnotationMethod(classLoader);
+            // the null value is cached as well if the method is absent
+            MERGED_ANNOTATION_METHODS_CACHE.put(classLoader, getMergedAnnotationMethod);
+        }
+        return getMergedAnnotationMethod;
+    }
+
+    private static Method resolveGetMergedAnnotationMethod(ClassLoader classLoader) {
+        Method getMergedAnnotationMethod = null;
         if (ClassUtils.isPresent(ANNOTATED_ELEMENT_UTILS_CLASS_NAME, classLoader)) {
             Class<?> annotatedElementUtilsClass = resolveClassName(ANNOTATED_ELEMENT_UTILS_CLASS_NAME, classLoader);
             // getMergedAnnotation method appears in the Spring Framework 4.2
-            Method getMergedAnnotationMethod = findMethod(annotatedElementUtilsClass, "getMergedAnnotation",
+            getMergedAnnotationMethod = findMethod(annotatedElementUtilsClass, "getMergedAnnotation",
                     AnnotatedElement.class, Class.class, boolean.class, boolean.class);
             if (getMergedAnnotationMethod != null) {
-                mergedAnnotation = (Annotation) invokeMethod(getMergedAnnotationMethod, null,
-                        annotatedElement, annotationType, classValuesAsString, nestedAnnotationsAsMap);
+                makeAccessible(getMergedAnnotationMethod);
             }
         }
-
-        return mergedAnnotation;
+        return getMergedAnnotationMethod;
     }
 
     /**
@@ -634,4 +913,68 @@ public abstract class AnnotationUtils {
                 classValuesAsString, nestedAnnotationsAsMap, ignoreDefaultValue, ignoreAttributeNames);
     }
 
+    /**
+     * The cache key of {@link AnnotationAttributes}
+     *
+     * @since 1.0.12
+     */
+    private static class AnnotationAttributesCacheKey {
+
+        private final AnnotatedElement annotatedElement;
+
+        private final Class<? extends Annotation> annotationType;
+
+        private final boolean classValuesAsString;
+
+        private final boolean nestedAnnotationsAsMap;
+
+        private final boolean ignoreDefaultValue;
+
+        private final boolean tryMergedAnnotation;
+
+        private final String[] ignoreAttributeNames;
+
+        private AnnotationAttributesCacheKey(AnnotatedElement annotatedElement, Class<? extends Annotation> annotationType,
+                                             boolean classValuesAsString, boolean nestedAnnotationsAsMap,
+                                             boolean ignoreDefaultValue, boolean tryMergedAnnotation,
+                                             String[] ignoreAttributeNames) {
+            this.annotatedElement = annotatedElement;
+            this.annotationType = annotationType;
+            this.classValuesAsString = classValuesAsString;
+            this.nestedAnnotationsAsMap = nestedAnnotationsAsMap;
+            this.ignoreDefaultValue = ignoreDefaultValue;
+            this.tryMergedAnnotation = tryMergedAnnotation;
+            this.ignoreAttributeNames = ignoreAttributeNames;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AnnotationAttributesCacheKey)) {
+                return false;
+            }
+            AnnotationAttributesCacheKey that = (AnnotationAttributesCacheKey) o;
+            return classValuesAsString == that.classValuesAsString
+                    && nestedAnnotationsAsMap == that.nestedAnnotationsAsMap
+                    && ignoreDefaultValue == that.ignoreDefaultValue
+                    && tryMergedAnnotation == that.tryMergedAnnotation
+                    && annotatedElement.equals(that.annotatedElement)
+                    && annotationType.equals(that.annotationType)
+                    && Arrays.equals(ignoreAttributeNames, that.ignoreAttributeNames);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = annotatedElement.hashCode();
+            result = 31 * result + annotationType.hashCode();
+            result = 31 * result + (classValuesAsString ? 1 : 0);
+            result = 31 * result + (nestedAnnotationsAsMap ? 1 : 0);
+            result = 31 * result + (ignoreDefaultValue ? 1 : 0);
+            result = 31 * result + (tryMergedAnnotation ? 1 : 0);
+            result = 31 * result + Arrays.hashCode(ignoreAttributeNames);
+            return result;
+        }
+    }
 }
@@ -8,13 +8,26 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.PropertySources;
 import org.springframework.core.env.PropertySourcesPropertyResolver;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import static com.alibaba.spring.util.ObjectUtils.EMPTY_STRING_ARRAY;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+import static org.springframework.util.ObjectUtils.nullSafeEquals;
+import static org.springframework.util.ObjectUtils.nullSafeHashCode;
 
 /**
  * {@link PropertySources} Utilities
@@ -91,8 +104,87 @@ public abstract class PropertySourcesUtils {
      * @since 1.0.3
      */
     public static Map<String, Object> getSubProperties(PropertySources propertySources, PropertyResolver propertyResolver, String prefix) {
+        return getSubProperties(propertySources, propertyResolver, singleton(prefix)).get(prefix);
+    }
+
+    /**
+     * Get prefixed {@link Properties} for multiple prefixes, each {@link PropertySource} is only visited once for all
+     * of them, and its property names are indexed during this call if there are more than one prefix
+     *
+     * @param propertySources  {@link PropertySources}
+     * @param propertyResolver {@link PropertyResolver} to resolve the placeholder if present
+     * @param prefixes         the prefixes of property name
+     * @return non-null read-only {@link Map}, the key is the prefix, the value is the same as
+     * {@link #getSubProperties(PropertySources, PropertyResolver, String)}
+     * @see Properties
+     * @since 1.0.12
+     */
+    public static Map<String, Map<String, Object>> getSubProperties(PropertySources propertySources, PropertyResolver propertyResolver,
+                                                                    Set<String> prefixes) {
+
+        Map<String, Map<String, Object>> subPropertiesMap = new LinkedHashMap<String, Map<String, Object>>(prefixes.size() * 2);
+
+        Map<String, String> normalizedPrefixes = new LinkedHashMap<String, String>(prefixes.size() * 2);
+
+        for (String prefix : prefixes) {
+            subPropertiesMap.put(prefix, new LinkedHashMap<String, Object>());
+            normalizedPrefixes.put(prefix, normalizePrefix(prefix));
+        }
+
+        Iterator<PropertySource<?>> iterator = propertySources.iterator();
+
+        while (iterator.hasNext()) {
+            PropertySource<?> source = iterator.next();
+            if (!(source instanceof EnumerablePropertySource)) {
+                continue;
+            }
+            // the names are always read from the source, the index is not kept beyond this call
+            String[] propertyNames = getPropertyNames(source);
+            PropertyNamesIndex index = normalizedPrefixes.size() > 1 ? new PropertyNamesIndex(propertyNames) : null;
+            for (Map.Entry<String, String> entry : normalizedPrefixes.entrySet()) {
+                String normalizedPrefix = entry.getValue();
+                Map<String, Object> subProperties = subPropertiesMap.get(entry.getKey());
+                Iterable<String> names = index == null ? asList(propertyNames) : index.getPropertyNames(normalizedPrefix);
+                for (String name : names) {
+                    if (!subProperties.containsKey(name) && name.startsWith(normalizedPrefix)) {
+                        String subName = name.substring(normalizedPrefix.length());
+                        if (!subProperties.containsKey(subName)) { // take first one
+                            Object value = source.getProperty(name);
+                            if (value instanceof String) {
+                                // Resolve placeholder
+                                value = propertyResolver.resolvePlaceholders((String) value);
+                            }
+                            subProperties.put(subName, value);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, Map<String, Object>> entry : subPropertiesMap.entrySet()) {
+            entry.setValue(unmodifiableMap(entry.getValue()));
+        }
+
+        return unmodifiableMap(subPropertiesMap);
+    }
+
+    /**
+     * Get the lazy view of prefixed {@link Properties}, the property names are matched eagerly, but the values are
+     * only resolved on the first access and then memoized, thus {@link Map#size()}, {@link Map#isEmpty()},
+     * {@link Map#containsKey(Object)} and {@link Map#keySet()} never resolve any value. The view reflects the property
+     * names at the time of its creation.
+     *
+     * @param propertySources  {@link PropertySources}
+     * @param propertyResolver {@link PropertyResolver} to resolve the placeholder if present
+     * @param prefix           the prefix of property name
+     * @return non-null read-only {@link Map}
+     * @see #getSubProperties(PropertySources, PropertyResolver, String)
+     * @since 1.0.12
+     */
+    public static Map<String, Object> getLazySubProperties(PropertySources propertySources, PropertyResolver propertyResolver,
+                                                           String prefix) {
 
-        Map<String, Object> subProperties = new LinkedHashMap<String, Object>();
+        Map<String, LazyPropertyValue> propertyValues = new LinkedHashMap<String, LazyPropertyValue>();
 
         String normalizedPrefix = normalizePrefix(prefix);
 
@@ -100,22 +192,20 @@ public abstract class PropertySourcesUtils {
 
         while (iterator.hasNext()) {
             PropertySource<?> source = iterator.next();
+            if (!(source instanceof EnumerablePropertySource)) {
+                continue;
+            }
             for (String name : getPropertyNames(source)) {
-                if (!subProperties.containsKey(name) && name.startsWith(normalizedPrefix)) {
+                if (!propertyValues.containsKey(name) && name.startsWith(normalizedPrefix)) {
                     String subName = name.substring(normalizedPrefix.length());
-                    if (!subProperties.containsKey(subName)) { // take first one
-                        Object value = source.getProperty(name);
-                        if (value instanceof String) {
-                            // Resolve placeholder
-                            value = propertyResolver.resolvePlaceholders((String) value);
-                        }
-                        subProperties.put(subName, value);
+                    if (!propertyValues.containsKey(subName)) { // take first one
+                        propertyValues.put(subName, new LazyPropertyValue(source, name, propertyResolver));
                     }
                 }
             }
         }
 
-        return unmodifiableMap(subProperties);
+        return new LazySubProperties(propertyValues);
     }
 
     /**
@@ -135,4 +225,230 @@ public abstract class PropertySourcesUtils {
 
         return propertyNames;
     }
+
+    /**
+     * The property value which will be resolved on the first access
+     *
+     * @since 1.0.12
+     */
+    private static class LazyPropertyValue {
+
+        private final PropertySource<?> propertySource;
+
+        private final String name;
+
+        private final PropertyResolver propertyResolver;
+
+        private volatile boolean resolved;
+
+        private volatile Object value;
+
+        private LazyPropertyValue(PropertySource<?> propertySource, String name, PropertyResolver propertyResolver) {
+            this.propertySource = propertySource;
+            this.name = name;
+            this.propertyResolver = propertyResolver;
+        }
+
+        private Object getValue() {
+            if (!resolved) {
+                Object value = propertySource.getProperty(name);
+                if (value instanceof String) {
+                    // Resolve placeholder
+                    value = propertyResolver.resolvePlaceholders((String) value);
+                }
+                this.value = value;
+                this.resolved = true;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The read-only {@link Map} view of the sub-properties whose values are resolved lazily
+     *
+     * @see #getLazySubProperties(PropertySources, PropertyResolver, String)
+     * @since 1.0.12
+     */
+    private static class LazySubProperties extends AbstractMap<String, Object> {
+
+        private final Map<String, LazyPropertyValue> propertyValues;
+
+        private LazySubProperties(Map<String, LazyPropertyValue> propertyValues) {
+            this.propertyValues = propertyValues;
+        }
+
+        @Override
+        public int size() {
+            return propertyValues.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return propertyValues.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return propertyValues.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            LazyPropertyValue propertyValue = propertyValues.get(key);
+            return propertyValue == null ? null : propertyValue.getValue();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return unmodifiableSet(propertyValues.keySet());
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, LazyPropertyValue>> iterator = propertyValues.entrySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            final Entry<String, LazyPropertyValue> entry = iterator.next();
+                            return new Entry<String, Object>() {
+
+                                @Override
+                                public String getKey() {
+                                    return entry.getKey();
+                                }
+
+                                @Override
+                                public Object getValue() {
+                                    return entry.getValue().getValue();
+                                }
+
+                                @Override
+                                public Object setValue(Object value) {
+                                    throw new UnsupportedOperationException();
+                                }
+
+                                @Override
+                                public boolean equals(Object o) {
+                                    if (!(o instanceof Entry)) {
+                                        return false;
+                                    }
+                                    Entry<?, ?> that = (Entry<?, ?>) o;
+                                    return nullSafeEquals(getKey(), that.getKey()) && nullSafeEquals(getValue(), that.getValue());
+                                }
+
+                                @Override
+                                public int hashCode() {
+                                    return nullSafeHashCode(getKey()) ^ nullSafeHashCode(getValue());
+                                }
+
+                                @Override
+                                public String toString() {
+                                    return getKey() + "=" + getValue();
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return propertyValues.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * The index of the property names of {@link PropertySource}, which is sorted to search the names by prefix in
+     * O(log n + k), it's only used within a single lookup of the multiple prefixes
+     *
+     * @since 1.0.12
+     */
+    private static class PropertyNamesIndex {
+
+        /**
+         * The property names in the original order
+         */
+        private final String[] propertyNames;
+
+        /**
+         * The positions of {@link #propertyNames} in the sorted order
+         */
+        private final int[] sortedPositions;
+
+        private PropertyNamesIndex(String[] propertyNames) {
+            this.propertyNames = propertyNames;
+            this.sortedPositions = sort(propertyNames);
+        }
+
+        private static int[] sort(final String[] propertyNames) {
+            Integer[] positions = new Integer[propertyNames.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = i;
+            }
+            Arrays.sort(positions, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return propertyNames[o1].compareTo(propertyNames[o2]);
+                }
+            });
+            int[] sortedPositions = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                sortedPositions[i] = positions[i];
+            }
+            return sortedPositions;
+        }
+
+        /**
+         * Get the property names starting with the specified prefix in the original order
+         *
+         * @param prefix the prefix of property name
+         * @return non-null
+         */
+        private List<String> getPropertyNames(String prefix) {
+            int low = 0;
+            int high = sortedPositions.length;
+            // find the first name which is not less than the prefix
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (propertyNames[sortedPositions[middle]].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            int end = low;
+            while (end < sortedPositions.length && propertyNames[sortedPositions[end]].startsWith(prefix)) {
+                end++;
+            }
+
+            if (low == end) {
+                return emptyList();
+            }
+
+            int[] positions = Arrays.copyOfRange(sortedPositions, low, end);
+            Arrays.sort(positions);
+            List<String> names = new ArrayList<String>(positions.length);
+            for (int position : positions) {
+                names.add(propertyNames[position]);
+            }
+            return names;
+        }
+    }
 }
@@ -20,16 +20,44 @@ import com.alibaba.spring.util.User;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValues;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.InjectionMetadata;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.alibaba.spring.util.AnnotationUtils.tryGetMergedAnnotation;
 
 /**
  * {@link AbstractAnnotationBeanPostProcessor} Test
@@ -93,6 +121,464 @@ public class AbstractAnnotationBeanPostProcessorTest {
         Assert.assertEquals(parent.user, genericChild.getS());
     }
 
+    @Test
+    public void testFindInjectionMetadataConcurrently() throws Exception {
+
+        CountingAnnotationBeanPostProcessor processor = new CountingAnnotationBeanPostProcessor();
+        processor.postProcessMergedBeanDefinition(new RootBeanDefinition(AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Child.class),
+                AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Child.class, "child");
+        int expectedCount = processor.count.get();
+
+        final CountingAnnotationBeanPostProcessor concurrentProcessor = new CountingAnnotationBeanPostProcessor();
+        int threads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < threads * 8; i++) {
+            final String beanName = "child" + i;
+            futures.add(executorService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    startLatch.await();
+                    Class<?> beanClass = AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Child.class;
+                    concurrentProcessor.postProcessMergedBeanDefinition(new RootBeanDefinition(beanClass), beanClass, beanName);
+                    return null;
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // The same class must be introspected only once
+        Assert.assertEquals(expectedCount, concurrentProcessor.count.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testFindInjectionMetadataOfDifferentClassesConcurrently() throws Exception {
+
+        final Class<?>[] beanClasses = {
+                AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Parent.class,
+                AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Child.class,
+                GenericConfiguration.GenericChild.class
+        };
+
+        final CountDownLatch introspectingLatch = new CountDownLatch(beanClasses.length);
+        final AtomicInteger timeouts = new AtomicInteger();
+
+        // Each introspecting thread waits for the others inside the introspection, it would time out if the
+        // introspection of the different classes were serialized
+        final ReferencedAnnotationInjectedBeanPostProcessor concurrentProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+
+            private final ThreadLocal<Boolean> arrived = new ThreadLocal<Boolean>();
+
+            @Override
+            protected AnnotationAttributes doGetAnnotationAttributes(AnnotatedElement annotatedElement,
+                                                                     Class<? extends Annotation> annotationType) {
+                if (arrived.get() == null) {
+                    arrived.set(Boolean.TRUE);
+                    introspectingLatch.countDown();
+                    try {
+                        if (!introspectingLatch.await(3, TimeUnit.SECONDS)) {
+                            timeouts.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.doGetAnnotationAttributes(annotatedElement, annotationType);
+            }
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(beanClasses.length);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (final Class<?> beanClass : beanClasses) {
+            futures.add(executorService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    concurrentProcessor.postProcessMergedBeanDefinition(new RootBeanDefinition(beanClass), beanClass,
+                            beanClass.getName());
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // All classes were introspected at the same time
+        Assert.assertEquals(0, introspectingLatch.getCount());
+        Assert.assertEquals(0, timeouts.get());
+    }
+
+    @Test
+    public void testGetInjectedObjectConcurrently() throws Exception {
+
+        final AtomicInteger createdCount = new AtomicInteger();
+
+        final ReferencedAnnotationInjectedBeanPostProcessor concurrentProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+            @Override
+            protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                               Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+                createdCount.incrementAndGet();
+                // Widen the window of the race
+                Thread.sleep(50);
+                return new User();
+            }
+        };
+
+        int threads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int i = 0; i < threads * 4; i++) {
+            futures.add(executorService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    startLatch.await();
+                    return concurrentProcessor.getInjectedObject(null, null, "bean", User.class, null);
+                }
+            }));
+        }
+        startLatch.countDown();
+        Object injectedObject = futures.get(0).get();
+        for (Future<Object> future : futures) {
+            Assert.assertSame(injectedObject, future.get());
+        }
+        executorService.shutdown();
+
+        // The injected-object must be created only once
+        Assert.assertEquals(1, createdCount.get());
+        Assert.assertEquals(1, concurrentProcessor.getInjectedObjects().size());
+    }
+
+    @Test(timeout = 10000)
+    public void testGetInjectedObjectReentrantly() throws Exception {
+
+        final AtomicInteger depth = new AtomicInteger();
+
+        final ReferencedAnnotationInjectedBeanPostProcessor reentrantProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+            @Override
+            protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                               Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+                if (depth.incrementAndGet() == 1) {
+                    // The circular injection re-enters with the same cache key
+                    getInjectedObject(attributes, bean, beanName, injectedType, injectedElement);
+                }
+                return new User();
+            }
+        };
+
+        Object injectedObject = reentrantProcessor.getInjectedObject(null, null, "bean", User.class, null);
+
+        Assert.assertEquals(2, depth.get());
+        // The object created by the re-entrance wins
+        Assert.assertSame(injectedObject, reentrantProcessor.getInjectedObject(null, null, "bean", User.class, null));
+        Assert.assertEquals(1, reentrantProcessor.getInjectedObjects().size());
+    }
+
+    @Test(timeout = 10000)
+    public void testGetInjectedObjectCircularlyAcrossThreads() throws Exception {
+
+        final CyclicBarrier creatingBarrier = new CyclicBarrier(2);
+
+        final ReferencedAnnotationInjectedBeanPostProcessor circularProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+
+            private final ThreadLocal<Boolean> creating = new ThreadLocal<Boolean>();
+
+            @Override
+            protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                               Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+                if (creating.get() == null) {
+                    creating.set(Boolean.TRUE);
+                    // Both threads are creating, then each one needs the object created by the other one
+                    creatingBarrier.await(5, TimeUnit.SECONDS);
+                    Class<?> dependencyType = User.class.equals(injectedType) ? ArrayList.class : User.class;
+                    getInjectedObject(attributes, bean, beanName, dependencyType, injectedElement);
+                }
+                return injectedType.newInstance();
+            }
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (final Class<?> injectedType : new Class<?>[]{User.class, ArrayList.class}) {
+            futures.add(executorService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return circularProcessor.getInjectedObject(null, null, "bean", injectedType, null);
+                }
+            }));
+        }
+        Assert.assertTrue(futures.get(0).get() instanceof User);
+        Assert.assertTrue(futures.get(1).get() instanceof ArrayList);
+        executorService.shutdown();
+
+        Assert.assertEquals(2, circularProcessor.getInjectedObjects().size());
+        Assert.assertSame(futures.get(0).get(), circularProcessor.getInjectedObject(null, null, "bean", User.class, null));
+        Assert.assertSame(futures.get(1).get(), circularProcessor.getInjectedObject(null, null, "bean", ArrayList.class, null));
+    }
+
+    @Test(timeout = 10000)
+    public void testGetInjectedObjectFailedInAnotherThread() throws Exception {
+
+        final CountDownLatch creatingLatch = new CountDownLatch(1);
+        final CountDownLatch failingLatch = new CountDownLatch(1);
+
+        final ReferencedAnnotationInjectedBeanPostProcessor failingProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+            @Override
+            protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                               Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+                creatingLatch.countDown();
+                failingLatch.await();
+                throw new IOException("The injected-object can't be created");
+            }
+        };
+
+        final AtomicReference<Throwable> creatingFailure = new AtomicReference<Throwable>();
+        final AtomicReference<Throwable> waitingFailure = new AtomicReference<Throwable>();
+
+        Thread creatingThread = new Thread(new GetInjectedObjectTask(failingProcessor, creatingFailure));
+        creatingThread.start();
+        creatingLatch.await();
+
+        Thread waitingThread = new Thread(new GetInjectedObjectTask(failingProcessor, waitingFailure));
+        waitingThread.start();
+        while (waitingThread.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+        failingLatch.countDown();
+
+        creatingThread.join();
+        waitingThread.join();
+
+        // The waiting thread sees the original exception
+        Assert.assertTrue(creatingFailure.get() instanceof IOException);
+        Assert.assertSame(creatingFailure.get(), waitingFailure.get());
+    }
+
+    private static class GetInjectedObjectTask implements Runnable {
+
+        private final AbstractAnnotationBeanPostProcessor processor;
+
+        private final AtomicReference<Throwable> failure;
+
+        GetInjectedObjectTask(AbstractAnnotationBeanPostProcessor processor, AtomicReference<Throwable> failure) {
+            this.processor = processor;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                processor.getInjectedObject(null, null, "bean", User.class, null);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }
+    }
+
+    @Test
+    public void testInjectionMetadataPerBean() throws Exception {
+
+        ReferencedAnnotationInjectedBeanPostProcessor perBeanProcessor = new ReferencedAnnotationInjectedBeanPostProcessor() {
+            @Override
+            protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                               Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+                return new User();
+            }
+
+            @Override
+            protected String buildInjectedObjectCacheKey(AnnotationAttributes attributes, Object bean, String beanName,
+                                                         Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) {
+                return beanName + "#" + injectedType.getName();
+            }
+        };
+
+        AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Parent parent1 = new AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Parent();
+        AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Parent parent2 = new AnnotationInjectedBeanPostProcessorTest.TestConfiguration.Parent();
+
+        perBeanProcessor.postProcessPropertyValues(null, null, parent1, "parent1");
+        perBeanProcessor.postProcessPropertyValues(null, null, parent2, "parent2");
+
+        Assert.assertNotNull(parent1.parentUser);
+        Assert.assertNotNull(parent2.parentUser);
+        Assert.assertNotSame(parent1.parentUser, parent2.parentUser);
+        Assert.assertNotSame(parent1.user, parent2.user);
+
+        InjectionMetadata metadata1 = findInjectionMetadata(perBeanProcessor, "parent1", parent1.getClass());
+        InjectionMetadata metadata2 = findInjectionMetadata(perBeanProcessor, "parent2", parent2.getClass());
+
+        // Two beans of the same class have their own metadata and elements
+        Assert.assertNotSame(metadata1, metadata2);
+
+        Collection<?> fieldElements1 = getElements(metadata1, "getFieldElements");
+        Collection<?> fieldElements2 = getElements(metadata2, "getFieldElements");
+        Assert.assertEquals(1, fieldElements1.size());
+        Assert.assertEquals(1, fieldElements2.size());
+        Object fieldElement1 = fieldElements1.iterator().next();
+        Object fieldElement2 = fieldElements2.iterator().next();
+        Assert.assertNotSame(fieldElement1, fieldElement2);
+        Assert.assertSame(parent1.parentUser, getElementObject(fieldElement1, "bean"));
+        Assert.assertSame(parent2.parentUser, getElementObject(fieldElement2, "bean"));
+
+        Collection<?> methodElements1 = getElements(metadata1, "getMethodElements");
+        Collection<?> methodElements2 = getElements(metadata2, "getMethodElements");
+        Assert.assertEquals(1, methodElements1.size());
+        Assert.assertEquals(1, methodElements2.size());
+        Object methodElement1 = methodElements1.iterator().next();
+        Object methodElement2 = methodElements2.iterator().next();
+        Assert.assertNotSame(methodElement1, methodElement2);
+        Assert.assertSame(parent1.user, getElementObject(methodElement1, "object"));
+        Assert.assertSame(parent2.user, getElementObject(methodElement2, "object"));
+    }
+
+    @Test
+    public void testMetaAnnotatedInjection() throws Exception {
+
+        InjectedAnnotationBeanPostProcessor processor = new InjectedAnnotationBeanPostProcessor();
+
+        MetaInjectedBean bean = new MetaInjectedBean();
+        processor.postProcessPropertyValues(null, null, bean, "metaInjectedBean");
+
+        // The meta-annotations are resolved by the merged annotations since Spring Framework 4.2
+        boolean mergedAnnotationSupported =
+                tryGetMergedAnnotation(MetaInjectedBean.class.getDeclaredField("metaUser"), Injected.class) != null;
+
+        Assert.assertNotNull(bean.user);
+        Assert.assertEquals(mergedAnnotationSupported, bean.metaUser != null);
+        Assert.assertNull(bean.customUser);
+    }
+
+    @Test
+    public void testOverriddenAnnotationAttributes() {
+
+        // The attributes of @Injected are resolved from an unrelated annotation
+        InjectedAnnotationBeanPostProcessor processor = new InjectedAnnotationBeanPostProcessor() {
+            @Override
+            protected AnnotationAttributes doGetAnnotationAttributes(AnnotatedElement annotatedElement,
+                                                                     Class<? extends Annotation> annotationType) {
+                if (annotatedElement.isAnnotationPresent(CustomInjected.class)) {
+                    return new AnnotationAttributes();
+                }
+                return super.doGetAnnotationAttributes(annotatedElement, annotationType);
+            }
+        };
+
+        MetaInjectedBean bean = new MetaInjectedBean();
+        processor.postProcessPropertyValues(null, null, bean, "metaInjectedBean");
+
+        Assert.assertNotNull(bean.user);
+        Assert.assertNotNull(bean.customUser);
+    }
+
+    @Test
+    public void testNonInjectedClass() {
+
+        CountingAnnotationBeanPostProcessor processor = new CountingAnnotationBeanPostProcessor();
+
+        processor.postProcessMergedBeanDefinition(new RootBeanDefinition(User.class), User.class, "user1");
+        int introspectedCount = processor.count.get();
+        Assert.assertTrue(introspectedCount > 0);
+
+        processor.postProcessMergedBeanDefinition(new RootBeanDefinition(User.class), User.class, "user2");
+        PropertyValues pvs = new MutablePropertyValues();
+        Assert.assertSame(pvs, processor.postProcessPropertyValues(pvs, null, new User(), "user3"));
+
+        // The class without injection point is introspected only once
+        Assert.assertEquals(introspectedCount, processor.count.get());
+
+        InjectionMetadata metadata = findInjectionMetadata(processor, "user1", User.class);
+        Assert.assertSame(metadata, findInjectionMetadata(processor, "user2", User.class));
+        Assert.assertTrue(getElements(metadata, "getFieldElements").isEmpty());
+        Assert.assertTrue(getElements(metadata, "getMethodElements").isEmpty());
+
+        Assert.assertTrue(processor.getInjectedFieldObjectsMap().isEmpty());
+        Assert.assertTrue(processor.getInjectedMethodObjectsMap().isEmpty());
+    }
+
+    private static InjectionMetadata findInjectionMetadata(AbstractAnnotationBeanPostProcessor processor,
+                                                           String beanName, Class<?> beanClass) {
+        Method method = ReflectionUtils.findMethod(AbstractAnnotationBeanPostProcessor.class, "findInjectionMetadata",
+                String.class, Class.class, PropertyValues.class);
+        ReflectionUtils.makeAccessible(method);
+        return (InjectionMetadata) ReflectionUtils.invokeMethod(method, processor, beanName, beanClass, null);
+    }
+
+    private static Collection<?> getElements(InjectionMetadata metadata, String methodName) {
+        Method method = ReflectionUtils.findMethod(metadata.getClass(), methodName);
+        ReflectionUtils.makeAccessible(method);
+        return (Collection<?>) ReflectionUtils.invokeMethod(method, metadata);
+    }
+
+    private static Object getElementObject(Object element, String fieldName) {
+        Field field = ReflectionUtils.findField(element.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, element);
+    }
+
+    @Target({ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Injected {
+    }
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Injected
+    @interface MetaInjected {
+    }
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface CustomInjected {
+    }
+
+    static class MetaInjectedBean {
+
+        @Injected
+        User user;
+
+        @MetaInjected
+        User metaUser;
+
+        @CustomInjected
+        User customUser;
+    }
+
+    static class InjectedAnnotationBeanPostProcessor extends AbstractAnnotationBeanPostProcessor {
+
+        InjectedAnnotationBeanPostProcessor() {
+            super(Injected.class);
+        }
+
+        @Override
+        protected Object doGetInjectedBean(AnnotationAttributes attributes, Object bean, String beanName,
+                                           Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) throws Exception {
+            return new User();
+        }
+
+        @Override
+        protected String buildInjectedObjectCacheKey(AnnotationAttributes attributes, Object bean, String beanName,
+                                                     Class<?> injectedType, InjectionMetadata.InjectedElement injectedElement) {
+            return injectedType.getName();
+        }
+    }
+
+    static class CountingAnnotationBeanPostProcessor extends ReferencedAnnotationInjectedBeanPostProcessor {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        protected AnnotationAttributes doGetAnnotationAttributes(AnnotatedElement annotatedElement,
+                                                                 Class<? extends Annotation> annotationType) {
+            count.incrementAndGet();
+            return super.doGetAnnotationAttributes(annotatedElement, annotationType);
+        }
+    }
+
     public static class ReferencedAnnotationInjectedBeanPostProcessor extends AbstractAnnotationBeanPostProcessor {
 
         public ReferencedAnnotationInjectedBeanPostProcessor() {
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.beans.factory.annotation;
+
+import com.alibaba.spring.context.config.ConfigurationBeanRecustomizer;
+import com.alibaba.spring.context.config.FilePropertySourceChangeNotifier;
+import com.alibaba.spring.util.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.PropertiesPropertySource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ConfigurationBeanRebinder} Test
+ *
+ * @since 1.0.12
+ */
+public class ConfigurationBeanRebinderTest {
+
+    private static final String PROPERTY_SOURCE_NAME = "file";
+
+    private static File file;
+
+    private static CountDownLatch recustomizedLatch;
+
+    private static Set<String> recustomizedPropertyNames;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("configuration-bean-rebinder", ".properties");
+        recustomizedLatch = new CountDownLatch(1);
+        Properties properties = new Properties();
+        properties.setProperty("usr.name", "mercyblitz");
+        properties.setProperty("usr.age", "34");
+        store(properties);
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new PropertiesPropertySource(PROPERTY_SOURCE_NAME, properties));
+        context.register(RebindingConfiguration.class);
+        context.refresh();
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+        file.delete();
+    }
+
+    @Test
+    public void testRebind() throws Exception {
+
+        User user = context.getBean(User.class);
+        assertEquals("mercyblitz", user.getName());
+        assertEquals(34, user.getAge());
+
+        Properties properties = new Properties();
+        properties.setProperty("usr.name", "Mercy Ma");
+        properties.setProperty("usr.age", "34");
+        properties.setProperty("other", "value");
+        store(properties);
+
+        assertTrue(recustomizedLatch.await(10, TimeUnit.SECONDS));
+
+        assertEquals("Mercy Ma", user.getName());
+        assertEquals(34, user.getAge());
+        assertEquals(Collections.singleton("name"), recustomizedPropertyNames);
+    }
+
+    @Test
+    public void testRebindWithSameLength() throws Exception {
+
+        User user = context.getBean(User.class);
+        assertEquals(34, user.getAge());
+
+        Properties properties = new Properties();
+        properties.setProperty("usr.name", "mercyblitz");
+        properties.setProperty("usr.age", "35");
+        store(properties);
+
+        assertTrue(recustomizedLatch.await(10, TimeUnit.SECONDS));
+
+        assertEquals("mercyblitz", user.getName());
+        assertEquals(35, user.getAge());
+        assertEquals(Collections.singleton("age"), recustomizedPropertyNames);
+    }
+
+    private static void store(Properties properties) throws IOException {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            properties.store(outputStream, null);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @EnableConfigurationBeanBinding(prefix = "usr", type = User.class)
+    static class RebindingConfiguration {
+
+        @Bean
+        public ConfigurationBeanRebinder configurationBeanRebinder() {
+            return new ConfigurationBeanRebinder(new FilePropertySourceChangeNotifier(PROPERTY_SOURCE_NAME, file, 10));
+        }
+
+        @Bean
+        public ConfigurationBeanRecustomizer userRecustomizer() {
+            return new ConfigurationBeanRecustomizer() {
+
+                @Override
+                public void recustomize(String beanName, Object configurationBean, Set<String> changedPropertyNames) {
+                    recustomizedPropertyNames = changedPropertyNames;
+                    recustomizedLatch.countDown();
+                }
+
+                @Override
+                public void customize(String beanName, Object configurationBean) {
+                }
+
+                @Override
+                public int getOrder() {
+                    return 0;
+                }
+            };
+        }
+    }
+}
@@ -31,7 +31,9 @@ import org.junit.Test;
 import org.springframework.context.annotation.Bean;
 
 import java.util.Collection;
+import java.util.HashSet;
 
+import static java.util.Arrays.asList;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -79,5 +81,9 @@ public class EnableConfigurationBeanBindingTestForMultipleBinding extends Abstra
         assertEquals(2, bUser.getAge());
 
         assertNotNull(configurationBeanBindingPostProcessor.getConfigurationBeanBinder());
+
+        assertEquals(new HashSet<String>(asList("a", "b")), context.getBeanFactory()
+                .getBeanDefinition(ConfigurationBeanBindingPostProcessor.BEAN_NAME)
+                .getAttribute(ConfigurationBeanBindingPostProcessor.CONFIGURATION_BEAN_NAMES_ATTRIBUTE_NAME));
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import com.alibaba.spring.util.User;
+import org.junit.Test;
+import org.springframework.validation.DataBinder;
+
+import java.beans.PropertyEditorSupport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link DefaultConfigurationBeanBinder} Test
+ *
+ * @since 1.0.12
+ */
+public class DefaultConfigurationBeanBinderTest {
+
+    private final DefaultConfigurationBeanBinder binder = new DefaultConfigurationBeanBinder();
+
+    @Test
+    public void testBind() {
+
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("name", "mercyblitz");
+        properties.put("age", "32");
+        properties.put("unknown", "value");
+
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            binder.bind(properties, true, true, user);
+            assertEquals("mercyblitz", user.getName());
+            assertEquals(32, user.getAge());
+        }
+
+        // the invalid value is ignored as before
+        properties.put("age", "invalid");
+        User user = new User();
+        binder.bind(properties, true, true, user);
+        assertEquals("mercyblitz", user.getName());
+        assertEquals(0, user.getAge());
+    }
+
+    @Test
+    public void testBindInOrder() {
+
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("age", "32");
+        properties.put("name", "mercyblitz");
+        properties.put("count", "1");
+        properties.put("failed", "value");
+        properties.put("city", "Hangzhou");
+
+        RecordingBean bean = new RecordingBean();
+        binder.bind(properties, true, true, bean);
+
+        // the original order is kept, and the failed setter is invoked only once without propagating the error
+        assertEquals(Arrays.asList("age", "name", "count", "failed", "city"), bean.invokedSetters);
+    }
+
+    @Test
+    public void testBindWithCustomizedDataBinder() {
+
+        DefaultConfigurationBeanBinder customizedBinder = new DefaultConfigurationBeanBinder() {
+            @Override
+            protected void initDataBinder(DataBinder dataBinder) {
+                dataBinder.setDisallowedFields("city");
+                dataBinder.registerCustomEditor(String.class, new PropertyEditorSupport() {
+                    @Override
+                    public void setAsText(String text) {
+                        setValue(text.toUpperCase());
+                    }
+                });
+            }
+        };
+
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("name", "mercyblitz");
+        properties.put("city", "Hangzhou");
+
+        // the String properties are bound by the customized DataBinder as well
+        RecordingBean bean = new RecordingBean();
+        customizedBinder.bind(properties, true, true, bean);
+        assertEquals(Arrays.asList("name"), bean.invokedSetters);
+
+        User user = new User();
+        customizedBinder.bind(properties, true, true, user);
+        assertEquals("MERCYBLITZ", user.getName());
+    }
+
+    public static class RecordingBean {
+
+        private final List<String> invokedSetters = new ArrayList<String>();
+
+        public void setAge(int age) {
+            invokedSetters.add("age");
+        }
+
+        public void setName(String name) {
+            invokedSetters.add("name");
+        }
+
+        public void setCount(long count) {
+            invokedSetters.add("count");
+        }
+
+        public void setFailed(String failed) {
+            invokedSetters.add("failed");
+            throw new IllegalArgumentException(failed);
+        }
+
+        public void setCity(String city) {
+            invokedSetters.add("city");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.config;
+
+import com.alibaba.spring.beans.factory.annotation.AbstractEnableConfigurationBeanBindingTest;
+import com.alibaba.spring.beans.factory.annotation.EnableConfigurationBeanBinding;
+import com.alibaba.spring.util.User;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link TypedConfigurationBeanCustomizer} Test
+ *
+ * @since 1.0.12
+ */
+@EnableConfigurationBeanBinding(prefix = "usr", type = User.class)
+public class TypedConfigurationBeanCustomizerTest extends AbstractEnableConfigurationBeanBindingTest {
+
+    @Bean
+    public ConfigurationBeanCustomizer userCustomizer() {
+        return new TypedConfigurationBeanCustomizer<User>() {
+
+            @Override
+            public int getOrder() {
+                return 1;
+            }
+
+            @Override
+            protected void doCustomize(String beanName, User configurationBean) {
+                configurationBean.setName(configurationBean.getName() + "-" + configurationBean.getAge());
+            }
+        };
+    }
+
+    @Bean
+    public ConfigurationBeanCustomizer stringCustomizer() {
+        return new TypedConfigurationBeanCustomizer<String>() {
+
+            @Override
+            public int getOrder() {
+                return 2;
+            }
+
+            @Override
+            protected void doCustomize(String beanName, String configurationBean) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void testGetConfigurationBeanType() {
+        assertEquals(User.class, ((TypedConfigurationBeanCustomizer<?>) userCustomizer()).getConfigurationBeanType());
+        assertEquals(String.class, ((TypedConfigurationBeanCustomizer<?>) stringCustomizer()).getConfigurationBeanType());
+    }
+
+    @Test
+    public void testCustomize() {
+        User user = context.getBean("m", User.class);
+        assertEquals("mercyblitz-34", user.getName());
+        assertEquals(34, user.getAge());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.event;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.springframework.util.ReflectionUtils.findField;
+
+/**
+ * The timing benchmark of the publish throughput of {@link DeferredApplicationEventPublisher} on a live context,
+ * comparing the cached {@link DeferredApplicationEventPublisher.ContextCapabilities} with the reflective detection
+ * on every publishing. It's not executed by the build, run {@link #main(String[])} manually instead.
+ *
+ * @since 1.0.12
+ */
+public class DeferredApplicationEventPublisherBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int MEASUREMENT_ROUNDS = 10;
+
+    private static final int EVENTS_PER_ROUND = 200000;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.addApplicationListener(new ApplicationListener<TestEvent>() {
+            @Override
+            public void onApplicationEvent(TestEvent event) {
+                sink = event;
+            }
+        });
+        context.refresh();
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context);
+            publisher.setPublishDirectlyIfReady(true);
+            TestEvent event = new TestEvent("benchmark");
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                publishCached(publisher, event);
+                publishDetecting(context, event);
+            }
+
+            long cachedNanos = 0;
+            long detectingNanos = 0;
+            for (int i = 0; i < MEASUREMENT_ROUNDS; i++) {
+                cachedNanos += publishCached(publisher, event);
+                detectingNanos += publishDetecting(context, event);
+            }
+
+            long events = (long) MEASUREMENT_ROUNDS * EVENTS_PER_ROUND;
+            System.out.printf("cached capabilities    : %8.1f ns/op%n", (double) cachedNanos / events);
+            System.out.printf("detection per publish  : %8.1f ns/op%n", (double) detectingNanos / events);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long publishCached(DeferredApplicationEventPublisher publisher, TestEvent event) {
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS_PER_ROUND; i++) {
+            publisher.publishEvent((Object) event);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Publish the events with the reflective detection of the capabilities on every publishing, as before they were
+     * cached
+     */
+    private static long publishDetecting(GenericApplicationContext context, TestEvent event) {
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS_PER_ROUND; i++) {
+            Class<?> contextClass = context.getClass();
+            sink = findField(contextClass, "earlyApplicationEvents");
+            sink = findField(contextClass, "applicationEventMulticaster");
+            context.publishEvent(event);
+        }
+        return System.nanoTime() - start;
+    }
+}
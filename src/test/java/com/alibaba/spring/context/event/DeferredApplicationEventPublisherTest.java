@@ -19,18 +19,50 @@ package com.alibaba.spring.context.event;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+import static org.springframework.util.ReflectionUtils.findField;
 
 /**
  * {@link DeferredApplicationEventPublisher} Test
@@ -53,6 +85,370 @@ public class DeferredApplicationEventPublisherTest {
         assertEquals("Hello,World", testConfig.getTestEvent().getSource());
     }
 
+    @Test
+    public void testGetContextCapabilities() {
+        Class<?> contextClass = GenericApplicationContext.class;
+        DeferredApplicationEventPublisher.ContextCapabilities capabilities =
+                DeferredApplicationEventPublisher.getContextCapabilities(contextClass);
+        assertEquals(findField(contextClass, "earlyApplicationEvents") != null, capabilities.supportsEarlyApplicationEvents);
+        assertEquals(findField(contextClass, "applicationEventMulticaster") != null, capabilities.initializedApplicationEventMulticaster);
+        // cached
+        assertSame(capabilities, DeferredApplicationEventPublisher.getContextCapabilities(contextClass));
+    }
+
+    @Test
+    public void testReplayDeferredEventsInParallel() {
+
+        final Map<Object, List<Object>> partitionedSources = new ConcurrentHashMap<Object, List<Object>>();
+        final Set<Thread> threads = new CopyOnWriteArraySet<Thread>();
+
+        // the ApplicationContext without early events support
+        ApplicationContext context = (ApplicationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ApplicationContext.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("publishEvent".equals(method.getName())) {
+                            String source = (String) ((ApplicationEvent) args[0]).getSource();
+                            partitionedSources.get(source.substring(0, 1)).add(source);
+                            threads.add(Thread.currentThread());
+                        }
+                        return null;
+                    }
+                });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context);
+            publisher.setReplayExecutor(executorService);
+            publisher.setReplayTimeout(TimeUnit.SECONDS.toMillis(10));
+            publisher.setEventPartitioner(new EventPartitioner() {
+                @Override
+                public Object getPartitionKey(ApplicationEvent event) {
+                    return ((String) event.getSource()).substring(0, 1);
+                }
+            });
+
+            String[] partitionKeys = {"a", "b", "c"};
+            for (String partitionKey : partitionKeys) {
+                partitionedSources.put(partitionKey, new CopyOnWriteArrayList<Object>());
+            }
+            for (int i = 0; i < 100; i++) {
+                for (String partitionKey : partitionKeys) {
+                    publisher.publishEvent(new TestEvent(partitionKey + i));
+                }
+            }
+
+            // deferred
+            assertTrue(threads.isEmpty());
+
+            publisher.onApplicationEvent(new ContextRefreshedEvent(context));
+
+            // completed and ordered in each partition
+            for (String partitionKey : partitionKeys) {
+                List<Object> sources = partitionedSources.get(partitionKey);
+                assertEquals(100, sources.size());
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(partitionKey + i, sources.get(i));
+                }
+            }
+            assertFalse(threads.contains(Thread.currentThread()));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplayDeferredEventsInParallelWithFailure() {
+
+        final List<Object> sources = new CopyOnWriteArrayList<Object>();
+
+        ApplicationContext context = (ApplicationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ApplicationContext.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("publishEvent".equals(method.getName())) {
+                            Object source = ((ApplicationEvent) args[0]).getSource();
+                            if ("a1".equals(source)) {
+                                throw new IllegalStateException(String.valueOf(source));
+                            }
+                            sources.add(source);
+                        }
+                        return null;
+                    }
+                });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context);
+            publisher.setReplayExecutor(executorService);
+            publisher.setEventPartitioner(new EventPartitioner() {
+                @Override
+                public Object getPartitionKey(ApplicationEvent event) {
+                    return ((String) event.getSource()).substring(0, 1);
+                }
+            });
+
+            for (int i = 0; i < 3; i++) {
+                publisher.publishEvent(new TestEvent("a" + i));
+                publisher.publishEvent(new TestEvent("b" + i));
+            }
+
+            try {
+                publisher.onApplicationEvent(new ContextRefreshedEvent(context));
+                fail();
+            } catch (IllegalStateException e) {
+                // the failure of listener is rethrown as the sequential replay
+                assertEquals("a1", e.getMessage());
+            }
+            // the other events are still replayed
+            assertEquals(5, sources.size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeferUntilReplayedInBackground() throws Exception {
+
+        final List<Object> sources = new CopyOnWriteArrayList<Object>();
+        final CountDownLatch blockingLatch = new CountDownLatch(1);
+
+        ApplicationContext context = (ApplicationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ApplicationContext.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("publishEvent".equals(method.getName())) {
+                            Object source = ((ApplicationEvent) args[0]).getSource();
+                            if ("a0".equals(source)) {
+                                blockingLatch.await(10, TimeUnit.SECONDS);
+                            }
+                            sources.add(source);
+                        }
+                        return null;
+                    }
+                });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            final DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context);
+            publisher.setReplayExecutor(executorService);
+            publisher.setReplayTimeout(50);
+
+            publisher.publishEvent(new TestEvent("a0"));
+            publisher.publishEvent(new TestEvent("a1"));
+
+            // timeout, the replay goes on in background
+            publisher.onApplicationEvent(new ContextRefreshedEvent(context));
+            assertTrue(sources.isEmpty());
+
+            // still deferred after the older events
+            publisher.publishEvent(new TestEvent("a2"));
+            assertTrue(sources.isEmpty());
+
+            blockingLatch.countDown();
+
+            awaitSize(sources, 3);
+            assertEquals(Arrays.<Object>asList("a0", "a1", "a2"), sources);
+
+            // published directly or by the last round
+            publisher.publishEvent(new TestEvent("a3"));
+            awaitSize(sources, 4);
+            assertEquals(Arrays.<Object>asList("a0", "a1", "a2", "a3"), sources);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void awaitSize(List<Object> sources, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (sources.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPublishEventAsync() throws Exception {
+
+        final int count = 100;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final List<Object> sources = new CopyOnWriteArrayList<Object>();
+        final Set<Thread> threads = new CopyOnWriteArraySet<Thread>();
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.addApplicationListener(new ApplicationListener<TestEvent>() {
+            @Override
+            public void onApplicationEvent(TestEvent event) {
+                sources.add(event.getSource());
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            }
+        });
+        context.refresh();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context, executorService,
+                    4, 3, DeferredApplicationEventPublisher.BackpressurePolicy.BLOCK);
+            publisher.setPublishDirectlyIfReady(true);
+
+            List<Object> expectedSources = new ArrayList<Object>();
+            for (int i = 0; i < count; i++) {
+                expectedSources.add(String.valueOf(i));
+                publisher.publishEvent(new TestEvent(String.valueOf(i)));
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            // the order is kept
+            assertEquals(expectedSources, sources);
+            assertFalse(threads.contains(Thread.currentThread()));
+        } finally {
+            executorService.shutdown();
+            context.close();
+        }
+    }
+
+    @Test
+    public void testFlushOnContextClosed() {
+
+        final List<Object> sources = new CopyOnWriteArrayList<Object>();
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.addApplicationListener(new ApplicationListener<TestEvent>() {
+            @Override
+            public void onApplicationEvent(TestEvent event) {
+                sources.add(event.getSource());
+            }
+        });
+        context.refresh();
+
+        // the dispatcher is never executed
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+
+        DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context, executor,
+                10, 3, DeferredApplicationEventPublisher.BackpressurePolicy.BLOCK);
+        publisher.setPublishDirectlyIfReady(true);
+
+        publisher.publishEvent(new TestEvent("0"));
+        // the event is buffered as well
+        publisher.publishEvent((Object) new TestEvent("1"));
+
+        assertEquals(1, tasks.size());
+        assertTrue(sources.isEmpty());
+
+        context.close();
+
+        assertEquals(Arrays.<Object>asList("0", "1"), sources);
+    }
+
+    @Test
+    public void testCloseOnRefreshFailure() throws IOException {
+
+        // the events are deferred only before Spring 4.2
+        assumeFalse(DeferredApplicationEventPublisher.getContextCapabilities(GenericApplicationContext.class)
+                .supportsEarlyApplicationEvents);
+
+        File spillDirectory = File.createTempFile("deferred-application-event-publisher-", "");
+        spillDirectory.delete();
+        spillDirectory.mkdirs();
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBeanDefinition("failedBean", new RootBeanDefinition(FailedBean.class));
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context);
+            publisher.setMaxInMemoryDeferredEvents(1);
+            publisher.setDeferredEventSpillDirectory(spillDirectory);
+            publisher.setDeferredEventSerializer(new DefaultSerializer());
+            publisher.setDeferredEventDeserializer(new DefaultDeserializer());
+
+            for (int i = 0; i < 3; i++) {
+                publisher.publishEvent(new DeferredEventBufferTest.SerializableEvent("event-" + i));
+            }
+            assertEquals(1, spillDirectory.listFiles().length);
+
+            try {
+                context.refresh();
+                fail();
+            } catch (BeanCreationException expected) {
+            }
+
+            // the spill file is deleted
+            assertEquals(0, spillDirectory.listFiles().length);
+        } finally {
+            File[] files = spillDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            spillDirectory.delete();
+        }
+    }
+
+    @Test
+    public void testCallerRunsAfterBufferedEvents() {
+
+        final List<Object> sources = new CopyOnWriteArrayList<Object>();
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.addApplicationListener(new ApplicationListener<TestEvent>() {
+            @Override
+            public void onApplicationEvent(TestEvent event) {
+                sources.add(event.getSource());
+            }
+        });
+        context.refresh();
+
+        // the dispatcher is never executed
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        };
+
+        try {
+            DeferredApplicationEventPublisher publisher = new DeferredApplicationEventPublisher(context, executor,
+                    2, 3, DeferredApplicationEventPublisher.BackpressurePolicy.CALLER_RUNS);
+            publisher.setPublishDirectlyIfReady(true);
+
+            publisher.publishEvent(new TestEvent("0"));
+            publisher.publishEvent(new TestEvent("1"));
+            assertTrue(sources.isEmpty());
+
+            // the buffer is full, the buffered events are published ahead
+            publisher.publishEvent(new TestEvent("2"));
+            assertEquals(Arrays.<Object>asList("0", "1", "2"), sources);
+        } finally {
+            context.close();
+        }
+    }
+
+}
+
+class FailedBean {
+
+    FailedBean() {
+        throw new IllegalStateException("Failed to create the bean");
+    }
 }
 
 class TestEvent extends ApplicationEvent {
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.spring.context.event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link DeferredEventBuffer} Test
+ *
+ * @since 1.0.12
+ */
+public class DeferredEventBufferTest {
+
+    private File spillDirectory;
+
+    private DeferredEventBuffer buffer;
+
+    @Before
+    public void init() throws IOException {
+        spillDirectory = File.createTempFile("deferred-event-buffer-", "");
+        spillDirectory.delete();
+        spillDirectory.mkdirs();
+        buffer = new DeferredEventBuffer();
+        buffer.setMaxInMemoryEvents(3);
+        buffer.setSpillDirectory(spillDirectory);
+        buffer.setSerializer(new DefaultSerializer());
+        buffer.setDeserializer(new DefaultDeserializer());
+    }
+
+    @After
+    public void destroy() {
+        File[] files = spillDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spillDirectory.delete();
+    }
+
+    @Test
+    public void testSpillAndPoll() {
+
+        for (int i = 0; i < 100; i++) {
+            buffer.add(new SerializableEvent("event-" + i));
+        }
+
+        assertEquals(100, buffer.size());
+        assertEquals(97, buffer.getSpilledSize());
+        assertEquals(1, spillDirectory.listFiles().length);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+
+        // the events added while polling are appended after the spilled events
+        buffer.add(new SerializableEvent("event-100"));
+
+        for (int i = 50; i <= 100; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+        // the spill file is removed once drained
+        assertEquals(0, spillDirectory.listFiles().length);
+
+        // the events are kept in memory again
+        buffer.add(new SerializableEvent("event-101"));
+        assertEquals(0, buffer.getSpilledSize());
+        assertEquals("event-101", buffer.poll().getSource());
+    }
+
+    @Test
+    public void testInMemory() {
+        buffer.setMaxInMemoryEvents(Integer.MAX_VALUE);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(new ApplicationEvent("event-" + i) {
+            });
+        }
+        assertEquals(0, buffer.getSpilledSize());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testSpillingDisabled() {
+        DeferredEventBuffer buffer = new DeferredEventBuffer();
+        buffer.setMaxInMemoryEvents(3);
+        buffer.setSpillDirectory(spillDirectory);
+        // no Serializer and Deserializer
+        for (int i = 0; i < 10; i++) {
+            buffer.add(new SerializableEvent("event-" + i));
+        }
+        assertEquals(10, buffer.size());
+        assertEquals(0, buffer.getSpilledSize());
+        assertEquals(0, spillDirectory.listFiles().length);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+    }
+
+    @Test
+    public void testAddNonSerializableEvent() {
+        for (int i = 0; i < 4; i++) {
+            buffer.add(new SerializableEvent("event-" + i));
+        }
+        try {
+            // the source is not serializable
+            buffer.add(new SerializableEvent(new Object()));
+            fail();
+        } catch (SerializationFailedException expected) {
+        }
+        // the buffer is unchanged
+        assertEquals(4, buffer.size());
+        assertEquals(1, buffer.getSpilledSize());
+
+        buffer.add(new SerializableEvent("event-4"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testCoalesce() {
+
+        buffer.setCoalescingPolicy(new EventCoalescingPolicy() {
+            @Override
+            public Object getCoalescingKey(ApplicationEvent event) {
+                String source = (String) event.getSource();
+                // "entity-{id}-{version}" is coalesced by "entity-{id}"
+                return source.startsWith("entity-") ? source.substring(0, source.lastIndexOf('-')) : null;
+            }
+        });
+
+        // in memory
+        buffer.add(new SerializableEvent("entity-1-1"));
+        buffer.add(new SerializableEvent("other-1"));
+        buffer.add(new SerializableEvent("entity-1-2"));
+        buffer.add(new SerializableEvent("entity-2-1"));
+        // the coalesced event releases its slot in memory
+        buffer.add(new SerializableEvent("entity-2-2"));
+        // spilled
+        buffer.add(new SerializableEvent("entity-3-1"));
+        buffer.add(new SerializableEvent("other-2"));
+        buffer.add(new SerializableEvent("entity-3-2"));
+        // supersedes the event in memory
+        buffer.add(new SerializableEvent("entity-1-3"));
+
+        assertEquals(4, buffer.getSpilledSize());
+        assertEquals(6, buffer.size());
+
+        assertEquals("other-1", buffer.poll().getSource());
+        assertEquals("entity-2-2", buffer.poll().getSource());
+        assertEquals("other-2", buffer.poll().getSource());
+        assertEquals("entity-3-2", buffer.poll().getSource());
+        assertEquals("entity-1-3", buffer.poll().getSource());
+        assertNull(buffer.poll());
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testClose() {
+        for (int i = 0; i < 10; i++) {
+            buffer.add(new SerializableEvent("event-" + i));
+        }
+        // the spill file is mapped
+        for (int i = 0; i < 5; i++) {
+            assertEquals("event-" + i, buffer.poll().getSource());
+        }
+        assertEquals(1, spillDirectory.listFiles().length);
+
+        buffer.close();
+
+        assertEquals(0, buffer.size());
+        assertNull(buffer.poll());
+        assertEquals(0, spillDirectory.listFiles().length);
+        try {
+            buffer.add(new SerializableEvent("event-10"));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    /**
+     * The event restores its transient source by itself
+     */
+    static class SerializableEvent extends ApplicationEvent {
+
+        SerializableEvent(Object source) {
+            super(source);
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeObject(source);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            source = in.readObject();
+        }
+    }
+}
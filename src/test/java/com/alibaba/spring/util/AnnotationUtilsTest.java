@@ -5,8 +5,13 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowire;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.AbstractPropertyResolver;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
 import org.springframework.mock.env.MockEnvironment;
 
 import java.lang.annotation.Annotation;
@@ -14,20 +19,28 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.alibaba.spring.util.AnnotationUtils.findAnnotations;
 import static com.alibaba.spring.util.AnnotationUtils.getAnnotationAttributes;
 import static com.alibaba.spring.util.AnnotationUtils.getAttribute;
 import static com.alibaba.spring.util.AnnotationUtils.getAttributes;
+import static com.alibaba.spring.util.AnnotationUtils.getCachedAnnotationAttributes;
 import static com.alibaba.spring.util.ObjectUtils.of;
 import static junit.framework.TestCase.assertNull;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.springframework.util.ReflectionUtils.findField;
 import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.getField;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
 
 /**
  * {@link AnnotationUtils} Test
@@ -245,6 +258,182 @@ public class AnnotationUtilsTest {
         assertNull(annotationAttributes);
     }
 
+    @Test
+    public void testGetCachedAnnotationAttributes() {
+
+        MockEnvironment environment = new MockEnvironment();
+
+        AnnotationAttributes annotationAttributes = getCachedAnnotationAttributes(getMethod("dummyBean"), Bean.class,
+                environment, false, false, false, true);
+        AnnotationAttributes expectedAttributes = getAnnotationAttributes(getMethod("dummyBean"), Bean.class,
+                environment, false, false, false, true);
+        assertEquals(expectedAttributes.keySet(), annotationAttributes.keySet());
+        assertArrayEquals(expectedAttributes.getStringArray("name"), annotationAttributes.getStringArray("name"));
+        assertEquals(expectedAttributes.get("autowire"), annotationAttributes.get("autowire"));
+
+        // absent annotation
+        assertNull(getCachedAnnotationAttributes(getMethod("dummyBean"), Configuration.class, environment,
+                false, false, true, true));
+        assertNull(getCachedAnnotationAttributes(getMethod("dummyBean"), Configuration.class, environment,
+                false, false, true, true));
+
+        // the placeholders are resolved by the current PropertyResolver
+        environment.setProperty("beanName", "Your Bean Name");
+        annotationAttributes = getCachedAnnotationAttributes(getMethod("dummyBean3"), Bean.class, environment,
+                false, false, true, true);
+        assertArrayEquals(of("Your Bean Name"), annotationAttributes.getStringArray("name"));
+
+        MockEnvironment anotherEnvironment = new MockEnvironment();
+        anotherEnvironment.setProperty("beanName", "My Bean Name");
+        annotationAttributes = getCachedAnnotationAttributes(getMethod("dummyBean3"), Bean.class, anotherEnvironment,
+                false, false, true, true);
+        assertArrayEquals(of("My Bean Name"), annotationAttributes.getStringArray("name"));
+
+        // the cached attributes must not be modified
+        annotationAttributes = getCachedAnnotationAttributes(getMethod("dummyBean3"), Bean.class, null,
+                false, false, true, true);
+        assertArrayEquals(of("${beanName}"), annotationAttributes.getStringArray("name"));
+
+        AnnotationUtils.clearCache();
+    }
+
+    @Test
+    public void testGetCachedAnnotationAttributesCopied() {
+
+        AnnotationAttributes annotationAttributes = getCachedAnnotationAttributes(ComponentScanHandler.class,
+                ComponentScan.class, null, false, true, true, false);
+        Class<?>[] basePackageClasses = (Class<?>[]) annotationAttributes.get("basePackageClasses");
+        AnnotationAttributes[] includeFilters = (AnnotationAttributes[]) annotationAttributes.get("includeFilters");
+        assertEquals(AnnotationUtilsTest.class, basePackageClasses[0]);
+        assertEquals(FilterType.ANNOTATION, includeFilters[0].get("type"));
+
+        // mutate the returned values
+        basePackageClasses[0] = Object.class;
+        includeFilters[0].put("type", FilterType.ASSIGNABLE_TYPE);
+        includeFilters[0] = null;
+
+        annotationAttributes = getCachedAnnotationAttributes(ComponentScanHandler.class, ComponentScan.class, null,
+                false, true, true, false);
+        assertEquals(AnnotationUtilsTest.class, ((Class<?>[]) annotationAttributes.get("basePackageClasses"))[0]);
+        assertEquals(FilterType.ANNOTATION, ((AnnotationAttributes[]) annotationAttributes.get("includeFilters"))[0].get("type"));
+
+        AnnotationUtils.clearCache();
+    }
+
+    @Test
+    public void testGetAttributesWithLiteralValues() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty("beanName", " Your Bean Name ");
+
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        String[] names = of("${beanName}", " literal ", "plain");
+        attributes.put("name", names);
+        attributes.put("initMethod", "init");
+
+        attributes = getAttributes(attributes, environment);
+        assertArrayEquals(of("Your Bean Name", "literal", "plain"), (String[]) attributes.get("name"));
+        assertEquals("init", attributes.get("initMethod"));
+        // the original array must not be modified
+        assertArrayEquals(of("${beanName}", " literal ", "plain"), names);
+    }
+
+    @Test
+    public void testGetAttributesWithCustomizedPlaceholderPrefix() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setPlaceholderPrefix("%{");
+        environment.setProperty("beanName", "Your Bean Name");
+
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        attributes.put("name", of("%{beanName}"));
+
+        attributes = getAttributes(attributes, environment);
+        assertArrayEquals(of("Your Bean Name"), (String[]) attributes.get("name"));
+    }
+
+    @Test
+    public void testGetAttributesWithoutResolvingLiteralValues() {
+        PropertySourcesPropertyResolver propertyResolver = new PropertySourcesPropertyResolver(new MutablePropertySources());
+        Field helperField = findField(AbstractPropertyResolver.class, "nonStrictHelper");
+        makeAccessible(helperField);
+
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        attributes.put("name", of(" literal ", "plain"));
+        attributes.put("initMethod", "init");
+
+        attributes = getAttributes(attributes, propertyResolver);
+        assertArrayEquals(of("literal", "plain"), (String[]) attributes.get("name"));
+        assertEquals("init", attributes.get("initMethod"));
+        // the placeholder helper is created on the first resolution
+        assertNull(getField(helperField, propertyResolver));
+
+        attributes.put("name", of("${beanName:Your Bean Name}"));
+        attributes = getAttributes(attributes, propertyResolver);
+        assertArrayEquals(of("Your Bean Name"), (String[]) attributes.get("name"));
+        Assert.assertNotNull(getField(helperField, propertyResolver));
+    }
+
+    @Test
+    public void testGetAttributesWithOverriddenResolver() {
+        final AtomicInteger resolvedCount = new AtomicInteger();
+        MockEnvironment environment = new MockEnvironment() {
+            @Override
+            public String resolvePlaceholders(String text) {
+                resolvedCount.incrementAndGet();
+                return super.resolvePlaceholders(text);
+            }
+        };
+
+        Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        attributes.put("name", of("literal", "plain"));
+        attributes.put("initMethod", "init");
+
+        getAttributes(attributes, environment);
+        // the overridden resolver may resolve any value
+        assertEquals(3, resolvedCount.get());
+    }
+
+    @Test
+    public void testGetDefaultValues() {
+        Map<String, Object> defaultValues = AnnotationUtils.getDefaultValues(Bean.class);
+        assertEquals(Autowire.NO, defaultValues.get("autowire"));
+        assertEquals("", defaultValues.get("initMethod"));
+        assertEquals(AbstractBeanDefinition.INFER_METHOD, defaultValues.get("destroyMethod"));
+        Assert.assertSame(defaultValues, AnnotationUtils.getDefaultValues(Bean.class));
+
+        defaultValues = AnnotationUtils.getDefaultValues(RuntimeAnnotation.class);
+        Assert.assertTrue(defaultValues.containsKey("value"));
+        assertNull(defaultValues.get("value"));
+    }
+
+    @Test
+    public void testGetMergedAnnotationMethodOncePerClassLoader() {
+
+        final AtomicInteger loadedCount = new AtomicInteger();
+
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (AnnotationUtils.ANNOTATED_ELEMENT_UTILS_CLASS_NAME.equals(name)) {
+                    loadedCount.incrementAndGet();
+                }
+                return super.loadClass(name, resolve);
+            }
+        };
+
+        Method getMergedAnnotationMethod = findMethod(AnnotationUtils.class, "getMergedAnnotationMethod", ClassLoader.class);
+        makeAccessible(getMergedAnnotationMethod);
+
+        Object mergedAnnotationMethod = invokeMethod(getMergedAnnotationMethod, null, classLoader);
+        int resolvedCount = loadedCount.get();
+        Assert.assertTrue(resolvedCount > 0);
+
+        // The method, or its absence before Spring Framework 4.2, is resolved only once per ClassLoader
+        for (int i = 0; i < 3; i++) {
+            Assert.assertSame(mergedAnnotationMethod, invokeMethod(getMergedAnnotationMethod, null, classLoader));
+        }
+        assertEquals(resolvedCount, loadedCount.get());
+    }
+
     private <A extends Annotation> A getAnnotation(String methodName, Class<A> annotationClass) {
         Method method = getMethod(methodName);
         return method.getAnnotation(annotationClass);
@@ -281,6 +470,11 @@ public class AnnotationUtilsTest {
 
     }
 
+    @ComponentScan(basePackageClasses = AnnotationUtilsTest.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, value = Configuration.class))
+    private static class ComponentScanHandler {
+    }
+
     @ClassAnnotation
     private static class ClassAnnotationHandler {
 
@@ -3,15 +3,28 @@ package com.alibaba.spring.util;
 import org.junit.Test;
 import org.springframework.core.env.AbstractEnvironment;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.mock.env.MockEnvironment;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.alibaba.spring.util.PropertySourcesUtils.getLazySubProperties;
 import static com.alibaba.spring.util.PropertySourcesUtils.getSubProperties;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * {@link PropertySourcesUtils} Test
@@ -71,6 +84,140 @@ public class PropertySourcesUtilsTest {
 
         assertEquals(Collections.emptyMap(), result);
 
+        // the changed property names must be visible
+        source.put("user.email", "mercyblitz@gmail.com");
+        expected.put("email", "mercyblitz@gmail.com");
+        assertEquals(expected, getSubProperties(propertySources, "user"));
+
+        source.remove("user.email");
+        expected.remove("email");
+        assertEquals(expected, getSubProperties(propertySources, "user"));
+
+    }
+
+    @Test
+    public void testGetSubPropertiesWithPrefixes() {
+
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty("age", "31");
+        environment.setProperty("user.name", "Mercy");
+        environment.setProperty("user.age", "${age}");
+        environment.setProperty("app.name", "demo");
+
+        Map<String, Map<String, Object>> result = getSubProperties(environment.getPropertySources(), environment,
+                new LinkedHashSet<String>(Arrays.asList("user", "app.", "no-exists")));
+
+        assertEquals(Arrays.asList("user", "app.", "no-exists"), new ArrayList<String>(result.keySet()));
+        for (String prefix : result.keySet()) {
+            assertEquals(getSubProperties(environment.getPropertySources(), environment, prefix), result.get(prefix));
+        }
+        assertEquals("31", result.get("user").get("age"));
+        assertEquals("demo", result.get("app.").get("name"));
+        assertEquals(Collections.emptyMap(), result.get("no-exists"));
+    }
+
+    @Test
+    public void testGetLazySubProperties() {
+
+        final AtomicInteger resolvedCount = new AtomicInteger();
+
+        MockEnvironment environment = new MockEnvironment() {
+            @Override
+            public String resolvePlaceholders(String text) {
+                resolvedCount.incrementAndGet();
+                return super.resolvePlaceholders(text);
+            }
+        };
+        environment.setProperty("age", "31");
+        environment.setProperty("user.name", "Mercy");
+        environment.setProperty("user.age", "${age}");
+
+        Map<String, Object> result = getLazySubProperties(environment.getPropertySources(), environment, "user");
+
+        assertEquals(2, result.size());
+        assertFalse(result.isEmpty());
+        assertTrue(result.containsKey("age"));
+        assertEquals(new HashSet<String>(Arrays.asList("name", "age")), result.keySet());
+        assertEquals(0, resolvedCount.get());
+
+        assertEquals("31", result.get("age"));
+        assertEquals("31", result.get("age"));
+        assertEquals(1, resolvedCount.get());
+
+        assertEquals(getSubProperties(environment.getPropertySources(), environment, "user"), result);
+
+        assertTrue(getLazySubProperties(environment.getPropertySources(), environment, "no-exists").isEmpty());
+    }
+
+    @Test
+    public void testGetSubPropertiesInOrder() {
+
+        MutablePropertySources propertySources = new MutablePropertySources();
+
+        Map<String, Object> source = new LinkedHashMap<String, Object>();
+        source.put("user.name", "Mercy");
+        source.put("users", "ignored");
+        source.put("user.age", "32");
+        source.put("user", "ignored");
+        source.put("user.address.city", "Hangzhou");
+        source.put("a.user.name", "ignored");
+        source.put("user.address.zip", "310000");
+
+        propertySources.addLast(new MapPropertySource("propertySource", source));
+
+        Map<String, Object> result = getSubProperties(propertySources, "user");
+        assertEquals(Arrays.asList("name", "age", "address.city", "address.zip"), new ArrayList<String>(result.keySet()));
+
+        result = getSubProperties(propertySources, "user.address.");
+        assertEquals(Arrays.asList("city", "zip"), new ArrayList<String>(result.keySet()));
+    }
+
+    @Test
+    public void testGetSubPropertiesAfterChanges() {
+
+        Map<String, Object> source = new LinkedHashMap<String, Object>();
+        source.put("user.name", "Mercy");
+        MutablePropertySources propertySources = new MutablePropertySources();
+        propertySources.addLast(new MapPropertySource("propertySource", source));
+
+        assertEquals(Collections.singleton("name"), getSubProperties(propertySources, "user").keySet());
+
+        // the same size, the key is replaced in place
+        source.remove("user.name");
+        source.put("user.age", "32");
+        assertEquals(Collections.singleton("age"), getSubProperties(propertySources, "user").keySet());
+
+        // the names of the other enumerable sources are changed in place
+        final Map<String, Object> enumerableSource = new LinkedHashMap<String, Object>();
+        enumerableSource.put("user.id", "1");
+        propertySources.addFirst(new EnumerablePropertySource<Map<String, Object>>("enumerablePropertySource", enumerableSource) {
+            @Override
+            public String[] getPropertyNames() {
+                return enumerableSource.keySet().toArray(new String[0]);
+            }
+
+            @Override
+            public Object getProperty(String name) {
+                return enumerableSource.get(name);
+            }
+        });
+        Set<String> prefixes = new LinkedHashSet<String>(Arrays.asList("user", "city"));
+        PropertySourcesPropertyResolver propertyResolver = new PropertySourcesPropertyResolver(propertySources);
+        assertEquals(new LinkedHashSet<String>(Arrays.asList("id", "age")),
+                getSubProperties(propertySources, propertyResolver, prefixes).get("user").keySet());
+        enumerableSource.remove("user.id");
+        enumerableSource.put("user.email", "mercy@gmail.com");
+        assertEquals(new LinkedHashSet<String>(Arrays.asList("email", "age")),
+                getSubProperties(propertySources, propertyResolver, prefixes).get("user").keySet());
+
+        // the different sources with the same name
+        Map<String, Object> anotherSource = new LinkedHashMap<String, Object>();
+        anotherSource.put("user.city", "Hangzhou");
+        MutablePropertySources anotherPropertySources = new MutablePropertySources();
+        anotherPropertySources.addLast(new MapPropertySource("propertySource", anotherSource));
+
+        assertEquals(Collections.singleton("city"), getSubProperties(anotherPropertySources, "user").keySet());
+        assertEquals(new LinkedHashSet<String>(Arrays.asList("email", "age")), getSubProperties(propertySources, "user").keySet());
     }
 
 }